@@ -45,6 +45,7 @@ dependencies {
     val roomVersion = "2.6.1"
     val lifecycleVersion = "2.7.0"
 
+    implementation(project(":quake-core"))
     implementation("androidx.appcompat:appcompat:1.6.1")
     implementation("com.google.android.material:material:1.11.0")
     implementation("androidx.constraintlayout:constraintlayout:2.1.4")
@@ -8,13 +8,13 @@ import android.content.IntentFilter;
 import android.content.ServiceConnection;
 import android.content.pm.PackageManager;
 import android.hardware.Sensor;
-import android.hardware.SensorEvent;
-import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
 import android.os.AsyncTask;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
 import android.os.IBinder;
+import android.os.Looper;
 import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
@@ -28,6 +28,10 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.aiquake.adapters.EventAdapter;
+import com.aiquake.detection.DetectionFrame;
+import com.aiquake.detection.DetectionPipeline;
+import com.aiquake.detection.FeatureVector;
+import com.aiquake.detection.GroundMotion;
 import com.aiquake.models.EarthquakeEvent;
 import com.aiquake.service.EarthquakeDetectionService;
 import com.aiquake.ui.dialogs.UsgsEventsDialogFragment;
@@ -60,21 +64,21 @@ import android.location.Geocoder;
 import java.io.IOException;
 import java.util.Locale;
 import com.aiquake.utils.EarthquakeNotificationManager;
+import com.aiquake.utils.EventFormatter;
+import com.aiquake.utils.WakeLockManager;
 import com.aiquake.services.EarthquakeApiService;
 import com.aiquake.services.WebSocketService;
 import android.app.NotificationManager;
 import android.app.AlertDialog;
 
-public class MainActivity extends AppCompatActivity implements SensorEventListener, EventAdapter.OnItemClickListener {
+public class MainActivity extends AppCompatActivity implements EventAdapter.OnItemClickListener {
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 101;
     private static final int NOTIFICATION_PERMISSION_REQUEST_CODE = 102;
     private static final String USGS_REQUEST_URL = "https://earthquake.usgs.gov/earthquakes/feed/v1.0/summary/2.5_day.geojson";
     private static final String TAG = "MainActivity";
-    private static final double EARTHQUAKE_THRESHOLD = 15.0; // Increased base threshold
-    private static final int MIN_ACCELERATION_COUNT = 5; // Increased required consecutive readings
-    private static final double MIN_MAGNITUDE = 3.0; // Minimum magnitude to consider
-    private static final int WINDOW_SIZE = 10; // Number of readings to analyze
-    private static final double VARIANCE_THRESHOLD = 5.0; // Minimum variance to consider as earthquake
+    private static final long DISPLAY_UPDATE_INTERVAL_MILLIS = 100; // Refresh sensor views at 10 Hz
+    private static final int CHART_MAX_POINTS = 100;
+    private static final int EVENT_PREFETCH_DISTANCE = 5; // Rows left below the viewport before the next page loads
 
     private SensorManager sensorManager;
     private Sensor accelerometer;
@@ -86,9 +90,20 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
     private boolean isMonitoring = false;
 
     private LineChart sensorDataChart;
-    private List<Entry> chartEntries = new ArrayList<>();
+    private LineDataSet chartDataSet;
+    private LineData chartData;
     private int chartXValue = 0;
 
+    // Latest pipeline values, written on the sensor thread and drawn at a throttled rate
+    private final Handler uiHandler = new Handler(Looper.getMainLooper());
+    private final Object displayLock = new Object();
+    private float displayX;
+    private float displayY;
+    private float displayZ;
+    private float displayPeakMagnitudeSquared; // Largest squared magnitude since the last refresh
+    private boolean displayUpdatePending = false;
+    private final Runnable displayUpdate = this::refreshSensorDisplay;
+
     private RecyclerView recyclerView;
     private EventAdapter eventAdapter;
     private List<EarthquakeEvent> events;
@@ -104,9 +119,10 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
     private WebSocketService webSocketService;
     private boolean isWebSocketServiceBound = false;
 
+    private EarthquakeDetectionService detectionService;
+    private boolean isDetectionServiceBound = false;
+
     private Geocoder geocoder;
-    private int accelerationCount = 0;
-    private List<Double> accelerationWindow = new ArrayList<>();
     private double lastMagnitude = 0.0;
     private long lastDetectionTime = 0;
     private static final long MIN_DETECTION_INTERVAL = 30000; // 30 seconds between detections
@@ -136,6 +152,52 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
         }
     };
 
+    private ServiceConnection detectionServiceConnection = new ServiceConnection() {
+        @Override
+        public void onServiceConnected(ComponentName name, IBinder service) {
+            Log.d(TAG, "Detection service connected");
+            EarthquakeDetectionService.LocalBinder binder = (EarthquakeDetectionService.LocalBinder) service;
+            detectionService = binder.getService();
+            isDetectionServiceBound = true;
+            // Subscribe to the service pipeline instead of processing the sensor a second time
+            detectionService.getPipeline().addListener(pipelineListener);
+        }
+
+        @Override
+        public void onServiceDisconnected(ComponentName name) {
+            Log.d(TAG, "Detection service disconnected");
+            detectionService = null;
+            isDetectionServiceBound = false;
+        }
+    };
+
+    /**
+     * Called on the service's sensor thread, so it only records values and schedules UI work
+     */
+    private final DetectionPipeline.Listener pipelineListener = new DetectionPipeline.Listener() {
+        @Override
+        public void onFrame(DetectionFrame frame) {
+            synchronized (displayLock) {
+                displayX = frame.getRawX();
+                displayY = frame.getRawY();
+                displayZ = frame.getRawZ();
+                displayPeakMagnitudeSquared = Math.max(displayPeakMagnitudeSquared,
+                    frame.getFeature(FeatureVector.MAGNITUDE_SQUARED));
+                if (!displayUpdatePending) {
+                    displayUpdatePending = true;
+                    uiHandler.postDelayed(displayUpdate, DISPLAY_UPDATE_INTERVAL_MILLIS);
+                }
+            }
+        }
+
+        @Override
+        public void onDetection(DetectionFrame frame) {
+            double acceleration = frame.getPeak();
+            double confidence = frame.getConfidence();
+            uiHandler.post(() -> onEarthquakeDetected(acceleration, confidence));
+        }
+    };
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -202,7 +264,19 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
 
         // Initialize ViewModel and observe data
         earthquakeViewModel = new ViewModelProvider(this).get(EarthquakeViewModel.class);
-        earthquakeViewModel.getAllEarthquakeEvents().observe(this, this::updateUI);
+        earthquakeViewModel.getRecentEarthquakeEvents().observe(this, this::updateUI);
+
+        // Load the next page of events before the list is scrolled to its end
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView view, int dx, int dy) {
+                LinearLayoutManager layoutManager = (LinearLayoutManager) view.getLayoutManager();
+                if (dy > 0 && layoutManager != null
+                    && layoutManager.findLastVisibleItemPosition() >= eventAdapter.getItemCount() - EVENT_PREFETCH_DISTANCE) {
+                    earthquakeViewModel.loadMoreRecentEarthquakeEvents();
+                }
+            }
+        });
 
         // Initialize location services
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(this);
@@ -251,6 +325,14 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
         sensorDataChart.getXAxis().setDrawLabels(false);
         sensorDataChart.getAxisRight().setEnabled(false);
         sensorDataChart.getLegend().setEnabled(false);
+
+        // Built once, refreshes only add and remove entries
+        chartDataSet = new LineDataSet(new ArrayList<>(), "Magnitude");
+        chartDataSet.setDrawCircles(false);
+        chartDataSet.setColor(getResources().getColor(R.color.purple_700, null));
+        chartDataSet.setLineWidth(1.5f);
+        chartData = new LineData(chartDataSet);
+        sensorDataChart.setData(chartData);
     }
 
     private void toggleMonitoring() {
@@ -366,14 +448,14 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
                 startService(serviceIntent);
             }
 
-            // Register listener in Activity ONLY for chart visualization and TextView updates
-            sensorManager.registerListener(this, accelerometer, SensorManager.SENSOR_DELAY_NORMAL);
+            // Bind to the service ONLY for chart visualization and TextView updates
+            bindService(serviceIntent, detectionServiceConnection, Context.BIND_AUTO_CREATE);
 
             isMonitoring = true;
             startMonitoringButton.setText("Stop Monitoring");
             statusTextView.setText("Monitoring Active");
             // Clear previous data when starting
-            chartEntries.clear();
+            chartDataSet.clear();
             chartXValue = 0;
         } else {
             Toast.makeText(this, "Accelerometer sensor not available on this device", Toast.LENGTH_SHORT).show();
@@ -384,13 +466,13 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
         // Stop location updates
         stopLocationUpdates();
 
+        // Unsubscribe from the pipeline before stopping the service
+        unbindDetectionService();
+
         // Stop the background service
         Intent serviceIntent = new Intent(this, EarthquakeDetectionService.class);
         stopService(serviceIntent);
 
-        // Unregister listener in Activity
-        sensorManager.unregisterListener(this);
-
         isMonitoring = false;
         startMonitoringButton.setText("Start Monitoring");
         statusTextView.setText("Idle");
@@ -440,122 +522,78 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
         }
     }
 
-    @Override
-    public void onSensorChanged(SensorEvent event) {
-        if (event.sensor.getType() == Sensor.TYPE_ACCELEROMETER) {
-            float x = event.values[0];
-            float y = event.values[1];
-            float z = event.values[2];
-
-            // Update axis text views
-            xAxisTextView.setText(String.format("X-axis: %.2f", x));
-            yAxisTextView.setText(String.format("Y-axis: %.2f", y));
-            zAxisTextView.setText(String.format("Z-axis: %.2f", z));
-
-            // Calculate acceleration magnitude
-            double acceleration = Math.sqrt(x * x + y * y + z * z);
-            
-            // Log the acceleration for debugging
-            Log.d(TAG, "Acceleration: " + acceleration);
+    private void unbindDetectionService() {
+        if (isDetectionServiceBound) {
+            if (detectionService != null) {
+                detectionService.getPipeline().removeListener(pipelineListener);
+            }
+            unbindService(detectionServiceConnection);
+            detectionService = null;
+            isDetectionServiceBound = false;
+        }
+    }
+
+    /**
+     * Show the latest pipeline values in the axis text views and the chart
+     */
+    private void refreshSensorDisplay() {
+        float x;
+        float y;
+        float z;
+        float peakMagnitude;
+        synchronized (displayLock) {
+            x = displayX;
+            y = displayY;
+            z = displayZ;
+            peakMagnitude = (float) Math.sqrt(displayPeakMagnitudeSquared);
+            displayPeakMagnitudeSquared = 0f;
+            displayUpdatePending = false;
+        }
 
-            // Add new entry to the chart data
-            chartEntries.add(new Entry(chartXValue++, (float)acceleration));
+        // Update axis text views
+        xAxisTextView.setText(EventFormatter.formatDecimal("X-axis: ", x, 2, null));
+        yAxisTextView.setText(EventFormatter.formatDecimal("Y-axis: ", y, 2, null));
+        zAxisTextView.setText(EventFormatter.formatDecimal("Z-axis: ", z, 2, null));
 
-            // Keep only the last 100 points for a rolling window effect
-            if (chartEntries.size() > 100) {
-                chartEntries.remove(0);
-            }
+        // Add new entry to the chart data, keeping the last points for a rolling window effect
+        chartDataSet.addEntry(new Entry(chartXValue++, peakMagnitude));
+        if (chartDataSet.getEntryCount() > CHART_MAX_POINTS) {
+            chartDataSet.removeFirst();
+        }
 
-            // Update the chart
-            LineDataSet dataSet = new LineDataSet(chartEntries, "Magnitude");
-            dataSet.setDrawCircles(false);
-            dataSet.setColor(getResources().getColor(R.color.purple_700, null));
-            dataSet.setLineWidth(1.5f);
-
-            LineData lineData = new LineData(dataSet);
-            sensorDataChart.setData(lineData);
-            sensorDataChart.notifyDataSetChanged();
-            sensorDataChart.invalidate();
-
-            // Update acceleration window
-            accelerationWindow.add(acceleration);
-            if (accelerationWindow.size() > WINDOW_SIZE) {
-                accelerationWindow.remove(0);
-            }
+        // Update the chart
+        chartData.notifyDataChanged();
+        sensorDataChart.notifyDataSetChanged();
+        sensorDataChart.invalidate();
+    }
 
-            // Improved earthquake detection logic
-            if (acceleration > EARTHQUAKE_THRESHOLD && accelerationWindow.size() >= WINDOW_SIZE) {
-                // Calculate variance in the window
-                double mean = calculateMean(accelerationWindow);
-                double variance = calculateVariance(accelerationWindow, mean);
-                
-                Log.d(TAG, String.format("Acceleration: %.2f, Variance: %.2f", acceleration, variance));
+    /**
+     * Called when the service pipeline reports a detection while the activity is subscribed
+     */
+    private void onEarthquakeDetected(double acceleration, double confidence) {
+        // Calculate magnitude
+        double magnitude = calculateMagnitude(acceleration);
+        Log.d(TAG, "Earthquake detected! Magnitude: " + magnitude);
 
-                if (variance > VARIANCE_THRESHOLD) {
-                    accelerationCount++;
-                    Log.d(TAG, "High variance detected: " + variance + " (count: " + accelerationCount + ")");
-                    
-                    if (accelerationCount >= MIN_ACCELERATION_COUNT) {
-                        // Calculate magnitude
-                        double magnitude = calculateMagnitude(acceleration, variance);
-                        
-                        // Check if magnitude is significant and enough time has passed since last detection
-                        long currentTime = System.currentTimeMillis();
-                        if (magnitude >= MIN_MAGNITUDE && 
-                            (currentTime - lastDetectionTime) > MIN_DETECTION_INTERVAL) {
-                            
-                            Log.d(TAG, "Earthquake detected! Magnitude: " + magnitude);
-                            
-                            // Create a new earthquake event with current location
-                            double latitude = currentLocation != null ? currentLocation.getLatitude() : 0.0;
-                            double longitude = currentLocation != null ? currentLocation.getLongitude() : 0.0;
-                            
-                            // Get location name using reverse geocoding
-                            String locationName = getLocationName(latitude, longitude);
-                            
-                            handleEarthquakeDetection(magnitude, latitude, longitude, locationName);
-                            
-                            // Update UI immediately
-                            List<EarthquakeEvent> currentEvents = new ArrayList<>();
-                            if (eventAdapter != null && eventAdapter.getEvents() != null) {
-                                currentEvents.addAll(eventAdapter.getEvents());
-                            }
-                            currentEvents.add(0, new EarthquakeEvent(
-                                magnitude,
-                                latitude,
-                                longitude,
-                                0.0,  // Placeholder depth
-                                locationName,
-                                new Date(),
-                                calculateConfidence(magnitude, variance)
-                            ));
-                            updateUI(currentEvents);
-                            
-                            // Show toast with location info
-                            runOnUiThread(() -> {
-                                Toast.makeText(MainActivity.this, 
-                                    "Earthquake detected! Magnitude: " + String.format("%.1f", magnitude) + 
-                                    " at " + locationName,
-                                    Toast.LENGTH_SHORT).show();
-                            });
-                            
-                            // Update last detection time
-                            lastDetectionTime = currentTime;
-                            lastMagnitude = magnitude;
-                        }
-                        
-                        // Reset acceleration count
-                        accelerationCount = 0;
-                    }
-                } else {
-                    // Reset acceleration count if variance is too low
-                    accelerationCount = 0;
-                }
-            } else {
-                // Reset acceleration count if below threshold
-                accelerationCount = 0;
-            }
+        // Create a new earthquake event with current location
+        double latitude = currentLocation != null ? currentLocation.getLatitude() : 0.0;
+        double longitude = currentLocation != null ? currentLocation.getLongitude() : 0.0;
+
+        // Get location name using reverse geocoding
+        String locationName = getLocationName(latitude, longitude);
+
+        if (!handleEarthquakeDetection(magnitude, confidence, latitude, longitude, locationName)) {
+            return;
         }
+        lastMagnitude = magnitude;
+
+        // Show toast with location info
+        runOnUiThread(() -> {
+            Toast.makeText(MainActivity.this,
+                "Earthquake detected! Magnitude: " + EventFormatter.formatMagnitude(magnitude) +
+                " at " + locationName,
+                Toast.LENGTH_SHORT).show();
+        });
     }
 
     private String getLocationName(double latitude, double longitude) {
@@ -588,41 +626,10 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
         return "Unknown Location";
     }
 
-    private double calculateMean(List<Double> values) {
-        double sum = 0.0;
-        for (Double value : values) {
-            sum += value;
-        }
-        return sum / values.size();
-    }
-
-    private double calculateVariance(List<Double> values, double mean) {
-        double sumSquaredDiff = 0.0;
-        for (Double value : values) {
-            double diff = value - mean;
-            sumSquaredDiff += diff * diff;
-        }
-        return sumSquaredDiff / values.size();
-    }
-
-    private double calculateMagnitude(double acceleration, double variance) {
-        // Combine acceleration and variance for more accurate magnitude
-        double combinedValue = (acceleration * 0.7) + (variance * 0.3);
-        // Scale down to reasonable magnitude range (0-10)
-        return Math.min(10.0, Math.max(0.0, Math.log10(combinedValue) * 1.5));
-    }
-
-    private double calculateConfidence(double acceleration, double variance) {
-        // Calculate confidence based on both acceleration and variance
-        double accelerationConfidence = (acceleration - EARTHQUAKE_THRESHOLD) / EARTHQUAKE_THRESHOLD;
-        double varianceConfidence = (variance - VARIANCE_THRESHOLD) / VARIANCE_THRESHOLD;
-        double combinedConfidence = (accelerationConfidence * 0.7) + (varianceConfidence * 0.3);
-        return Math.min(1.0, Math.max(0.0, combinedConfidence));
-    }
-
-    @Override
-    public void onAccuracyChanged(Sensor sensor, int accuracy) {
-        // Not needed for this implementation
+    private double calculateMagnitude(double acceleration) {
+        // Peak ground acceleration of the band-passed signal, gravity already removed; the
+        // same conversion as the detection service, so the toast matches the stored event
+        return GroundMotion.estimateMagnitude(acceleration);
     }
 
     @Override
@@ -631,9 +638,13 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
         if (isMonitoring) {
             stopLocationUpdates();
         }
-        // Unregister listener in Activity when activity is paused
-        if (sensorManager != null && isMonitoring) {
-            sensorManager.unregisterListener(this);
+        // Stop display updates while the activity is paused
+        if (detectionService != null) {
+            detectionService.getPipeline().removeListener(pipelineListener);
+        }
+        uiHandler.removeCallbacks(displayUpdate);
+        synchronized (displayLock) {
+            displayUpdatePending = false;
         }
     }
 
@@ -643,30 +654,28 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
         if (isMonitoring) {
             startLocationUpdates();
         }
-        // Register listener in Activity when activity is resumed
-        if (sensorManager != null && isMonitoring) {
-            sensorManager.registerListener(this, accelerometer, SensorManager.SENSOR_DELAY_NORMAL);
+        // Resume display updates when activity is resumed
+        if (detectionService != null && isMonitoring) {
+            detectionService.getPipeline().addListener(pipelineListener);
         }
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        // Ensure listener is unregistered when activity is destroyed
-        if (sensorManager != null && isMonitoring) {
-            sensorManager.unregisterListener(this);
-        }
+        // Ensure the pipeline listener is unregistered when activity is destroyed
+        unbindDetectionService();
         if (isWebSocketServiceBound) {
             unbindService(webSocketServiceConnection);
             isWebSocketServiceBound = false;
         }
     }
 
-    private void handleEarthquakeDetection(double magnitude, double latitude, double longitude, String location) {
+    private boolean handleEarthquakeDetection(double magnitude, double confidence, double latitude, double longitude, String location) {
         long currentTime = System.currentTimeMillis();
         if (currentTime - lastDetectionTime < MIN_DETECTION_INTERVAL) {
             Log.d(TAG, "Skipping detection - too soon since last detection");
-            return;
+            return false;
         }
         
         lastDetectionTime = currentTime;
@@ -679,31 +688,31 @@ public class MainActivity extends AppCompatActivity implements SensorEventListen
             0.0, // depth
             location,
             new Date(),
-            calculateConfidence(magnitude, calculateVariance(accelerationWindow, calculateMean(accelerationWindow)))
+            confidence
         );
         
         Log.d(TAG, "Earthquake detected! Magnitude: " + magnitude + ", Location: " + location);
         
-        // Save to local database
-        earthquakeViewModel.insert(event);
-        Log.d(TAG, "Saved earthquake to local database");
+        // The detection service stores the event, the list picks it up from the shared database
         
         // Send to backend
-        new Thread(() -> {
-            Log.d(TAG, "Attempting to send earthquake data to backend...");
-            boolean success = apiService.sendEarthquakeEvent(event);
-            if (!success) {
-                Log.e(TAG, "Failed to send earthquake data to server");
-                runOnUiThread(() -> Toast.makeText(MainActivity.this, 
-                    "Failed to send earthquake data to server", Toast.LENGTH_SHORT).show());
-            } else {
-                Log.d(TAG, "Successfully sent earthquake data to server");
-            }
-        }).start();
+        new Thread(() -> WakeLockManager.getInstance(this).runWithWakeLock("Upload",
+            WakeLockManager.UPLOAD_TIMEOUT_MILLIS, () -> {
+                Log.d(TAG, "Attempting to send earthquake data to backend...");
+                boolean success = apiService.sendEarthquakeEvent(event);
+                if (!success) {
+                    Log.e(TAG, "Failed to send earthquake data to server");
+                    runOnUiThread(() -> Toast.makeText(MainActivity.this, 
+                        "Failed to send earthquake data to server", Toast.LENGTH_SHORT).show());
+                } else {
+                    Log.d(TAG, "Successfully sent earthquake data to server");
+                }
+            })).start();
         
         // Show notification
         notificationManager.showEarthquakeNotification(event);
         Log.d(TAG, "Earthquake notification shown");
+        return true;
     }
 
     private void startWebSocketService() {
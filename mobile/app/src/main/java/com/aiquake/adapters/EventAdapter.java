@@ -7,17 +7,35 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.aiquake.R;
 import com.aiquake.models.EarthquakeEvent;
 import com.aiquake.ui.activities.EventDetailActivity;
-import java.text.SimpleDateFormat;
+import com.aiquake.utils.EventFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
 
 public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHolder> {
-    private List<EarthquakeEvent> events;
+    // Rows are matched by event and rebound only when a shown field changed
+    private static final DiffUtil.ItemCallback<EarthquakeEvent> DIFF_CALLBACK = new DiffUtil.ItemCallback<EarthquakeEvent>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull EarthquakeEvent oldEvent, @NonNull EarthquakeEvent newEvent) {
+            return stableId(oldEvent) == stableId(newEvent);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull EarthquakeEvent oldEvent, @NonNull EarthquakeEvent newEvent) {
+            return oldEvent.getMagnitude() == newEvent.getMagnitude()
+                && oldEvent.getTimestamp().equals(newEvent.getTimestamp())
+                && Objects.equals(oldEvent.getLocation(), newEvent.getLocation());
+        }
+    };
+
+    // Lists are diffed on a background thread, only the changed rows are bound
+    private final AsyncListDiffer<EarthquakeEvent> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private Context context;
     private OnItemClickListener listener;
 
@@ -27,7 +45,8 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
 
     public EventAdapter(Context context, List<EarthquakeEvent> events) {
         this.context = context;
-        this.events = events != null ? events : new ArrayList<>();
+        setHasStableIds(true);
+        updateEvents(events);
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
@@ -35,7 +54,7 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
     }
 
     public List<EarthquakeEvent> getEvents() {
-        return events;
+        return differ.getCurrentList();
     }
 
     @NonNull
@@ -48,15 +67,12 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
 
     @Override
     public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
-        EarthquakeEvent event = events.get(position);
-        
-        // Format the time
-        SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy HH:mm:ss", Locale.getDefault());
-        String timeStr = sdf.format(event.getTimestamp());
+        EarthquakeEvent event = differ.getCurrentList().get(position);
+
 
         // Set the data
-        holder.magnitudeText.setText(String.format(Locale.getDefault(), "%.1f", event.getMagnitude()));
-        holder.timeText.setText(timeStr);
+        holder.magnitudeText.setText(EventFormatter.formatMagnitude(event.getMagnitude()));
+        holder.timeText.setText(EventFormatter.formatTime(event.getTimestamp()));
         holder.locationText.setText(event.getLocation());
 
         // Set click listener
@@ -69,12 +85,32 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
 
     @Override
     public int getItemCount() {
-        return events != null ? events.size() : 0;
+        return differ.getCurrentList().size();
     }
 
+    @Override
+    public long getItemId(int position) {
+        return stableId(differ.getCurrentList().get(position));
+    }
+
+    /**
+     * Show a new list. The rows are updated once it has been diffed against the current one,
+     * so the events must not be modified afterwards.
+     */
     public void updateEvents(List<EarthquakeEvent> newEvents) {
-        this.events = newEvents != null ? new ArrayList<>(newEvents) : new ArrayList<>();
-        notifyDataSetChanged();
+        differ.submitList(newEvents != null ? new ArrayList<>(newEvents) : new ArrayList<>());
+    }
+
+    // Stored events have their row id. Feed events are not stored, their id is 0,
+    // so they are keyed by time and place instead, on the negative side to stay clear of row ids
+    private static long stableId(EarthquakeEvent event) {
+        if (event.getId() != 0) {
+            return event.getId();
+        }
+        long key = event.getTimestamp().getTime();
+        key = 31 * key + Double.doubleToLongBits(event.getLatitude());
+        key = 31 * key + Double.doubleToLongBits(event.getLongitude());
+        return key < 0 ? key : ~key;
     }
 
     static class EventViewHolder extends RecyclerView.ViewHolder {
@@ -5,37 +5,170 @@ import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import com.aiquake.data.dao.SensorBlockDao;
 import com.aiquake.data.dao.SensorDataDao;
+import com.aiquake.data.dao.SensorSummaryDao;
 import com.aiquake.data.dao.EarthquakeEventDao;
 import com.aiquake.data.dao.DetectionSettingsDao;
+import com.aiquake.data.entity.SensorBlock;
 import com.aiquake.data.entity.SensorData;
-import com.aiquake.data.entity.EarthquakeEvent;
+import com.aiquake.data.entity.SensorSummary;
 import com.aiquake.data.entity.DetectionSettings;
 import com.aiquake.data.util.Converters;
+import com.aiquake.geo.GridCell;
+import com.aiquake.models.EarthquakeEvent;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 @Database(entities = {
     SensorData.class,
     EarthquakeEvent.class,
-    DetectionSettings.class
-}, version = 1, exportSchema = false)
+    DetectionSettings.class,
+    SensorBlock.class,
+    SensorSummary.class
+}, version = 7, exportSchema = false)
 @TypeConverters({Converters.class})
 public abstract class AppDatabase extends RoomDatabase {
     private static final String DATABASE_NAME = "quake_database";
     private static volatile AppDatabase INSTANCE;
 
+    // Every write goes through this one thread, so writers never contend for the database lock
+    private static final ScheduledExecutorService WRITE_EXECUTOR = Executors.newSingleThreadScheduledExecutor();
+
+    // Version 2: hold-off period of the sampling governor
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE detection_settings ADD COLUMN holdOffSeconds INTEGER NOT NULL DEFAULT 60");
+        }
+    };
+
+    // Version 3: compressed sample blocks replace per-sample rows
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `sensor_blocks` ("
+                + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`startTime` INTEGER NOT NULL, "
+                + "`endTime` INTEGER NOT NULL, "
+                + "`sampleCount` INTEGER NOT NULL, "
+                + "`potentialEarthquake` INTEGER NOT NULL, "
+                + "`data` BLOB NOT NULL)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_sensor_blocks_startTime` ON `sensor_blocks` (`startTime`)");
+        }
+    };
+
+    // Version 4: downsampled history kept by SensorRetention
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `sensor_summaries` ("
+                + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`resolutionMillis` INTEGER NOT NULL, "
+                + "`bucketStart` INTEGER NOT NULL, "
+                + "`sampleCount` INTEGER NOT NULL, "
+                + "`minX` REAL NOT NULL, "
+                + "`maxX` REAL NOT NULL, "
+                + "`minY` REAL NOT NULL, "
+                + "`maxY` REAL NOT NULL, "
+                + "`minZ` REAL NOT NULL, "
+                + "`maxZ` REAL NOT NULL, "
+                + "`rms` REAL NOT NULL, "
+                + "`potentialEarthquake` INTEGER NOT NULL)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_sensor_summaries_resolutionMillis_bucketStart` "
+                + "ON `sensor_summaries` (`resolutionMillis`, `bucketStart`)");
+        }
+    };
+
+    // Version 5: indices for the time, magnitude and region queries on earthquake_events
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE earthquake_events ADD COLUMN gridCell INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("UPDATE earthquake_events SET gridCell = " + GridCell.sqlExpression("latitude", "longitude"));
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_earthquake_events_timestamp` ON `earthquake_events` (`timestamp` DESC)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_earthquake_events_magnitude` ON `earthquake_events` (`magnitude`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_earthquake_events_gridCell_timestamp` ON `earthquake_events` (`gridCell`, `timestamp`)");
+        }
+    };
+
+    // Version 6: R*Tree over event positions, see EarthquakeSpatialIndex
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            EarthquakeSpatialIndex.create(database);
+        }
+    };
+
+    // Version 7: earthquake_events takes the schema of models.EarthquakeEvent, the event
+    // entity shared with the UI. SQLite cannot rename or retype columns in place, so the
+    // table is rebuilt and the R*Tree triggers, dropped with it, are recreated
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `earthquake_events_new` ("
+                + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`magnitude` REAL NOT NULL, "
+                + "`latitude` REAL NOT NULL, "
+                + "`longitude` REAL NOT NULL, "
+                + "`depth` REAL NOT NULL, "
+                + "`location` TEXT, "
+                + "`timestamp` INTEGER NOT NULL, "
+                + "`confidence` REAL NOT NULL, "
+                + "`gridCell` INTEGER NOT NULL DEFAULT 0)");
+            database.execSQL("INSERT INTO earthquake_events_new "
+                + "(id, magnitude, latitude, longitude, depth, location, timestamp, confidence, gridCell) "
+                + "SELECT id, magnitude, latitude, longitude, depth, locationName, timestamp, confidenceLevel, gridCell "
+                + "FROM earthquake_events");
+            database.execSQL("DROP TABLE earthquake_events");
+            database.execSQL("ALTER TABLE earthquake_events_new RENAME TO earthquake_events");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_earthquake_events_timestamp` ON `earthquake_events` (`timestamp` DESC)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_earthquake_events_magnitude` ON `earthquake_events` (`magnitude`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_earthquake_events_gridCell_timestamp` ON `earthquake_events` (`gridCell`, `timestamp`)");
+            EarthquakeSpatialIndex.create(database);
+        }
+    };
+
+    // Fresh databases get the tables Room cannot declare
+    private static final RoomDatabase.Callback CREATE_CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onCreate(SupportSQLiteDatabase database) {
+            EarthquakeSpatialIndex.create(database);
+        }
+    };
+
     public abstract SensorDataDao sensorDataDao();
+    public abstract SensorSummaryDao sensorSummaryDao();
+    public abstract SensorBlockDao sensorBlockDao();
     public abstract EarthquakeEventDao earthquakeEventDao();
     public abstract DetectionSettingsDao detectionSettingsDao();
 
+    /**
+     * The single thread all database writes run on
+     */
+    public static ScheduledExecutorService getWriteExecutor() {
+        return WRITE_EXECUTOR;
+    }
+
     public static AppDatabase getDatabase(final Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(
-                        context.getApplicationContext(),
+                    Context appContext = context.getApplicationContext();
+                    AppDatabase database = Room.databaseBuilder(
+                        appContext,
                         AppDatabase.class,
                         DATABASE_NAME
-                    ).build();
+                    )
+                    .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6,
+                        MIGRATION_6_7)
+                    .addCallback(CREATE_CALLBACK)
+                    .build();
+                    // Bring over the events of the database this one replaced
+                    WRITE_EXECUTOR.execute(() -> LegacyEarthquakeImporter.importIfPresent(appContext, database));
+                    INSTANCE = database;
                 }
             }
         }
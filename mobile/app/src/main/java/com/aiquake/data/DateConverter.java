@@ -1,16 +0,0 @@
-package com.aiquake.data;
-
-import androidx.room.TypeConverter;
-import java.util.Date;
-
-public class DateConverter {
-    @TypeConverter
-    public static Date toDate(Long timestamp) {
-        return timestamp == null ? null : new Date(timestamp);
-    }
-
-    @TypeConverter
-    public static Long toTimestamp(Date date) {
-        return date == null ? null : date.getTime();
-    }
-} 
\ No newline at end of file
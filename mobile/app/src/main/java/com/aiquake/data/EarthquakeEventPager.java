@@ -0,0 +1,125 @@
+package com.aiquake.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import com.aiquake.data.dao.EarthquakeEventDao;
+import com.aiquake.models.EarthquakeEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Recent events, newest first, loaded a page at a time as the list scrolls.
+ *
+ * Pages are found by keyset: the next page starts after the (timestamp, id)
+ * of the last event shown, a seek on the timestamp index that costs the same
+ * however much history there is. Only the head of the list is observed, from
+ * the newest event down to the end of the first page, so new detections and
+ * changes near the top show up while a database write re-reads a page's worth
+ * of rows however far the list was scrolled. Older pages are kept as loaded:
+ * an edit, deletion or back-dated insert between them shows the next time the
+ * list is created, and events older than the whole list are picked up by the
+ * next page load.
+ *
+ * Must be used from the main thread.
+ */
+public class EarthquakeEventPager {
+    public static final int PAGE_SIZE = 30;
+
+    private final EarthquakeEventDao earthquakeEventDao;
+    private final Executor queryExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final MediatorLiveData<List<EarthquakeEvent>> events = new MediatorLiveData<>();
+
+    private LiveData<List<EarthquakeEvent>> headSource;
+    private boolean headBounded;
+    private List<EarthquakeEvent> head = Collections.emptyList();
+    // Pages after the head, oldest last, all below the head's last key
+    private final List<EarthquakeEvent> olderPages = new ArrayList<>();
+    private boolean loading;
+    private boolean endReached;
+    // Observed while endReached, reports events inserted below the oldest loaded one
+    private LiveData<Boolean> olderEventsSource;
+
+    public EarthquakeEventPager(AppDatabase database) {
+        this.earthquakeEventDao = database.earthquakeEventDao();
+        this.queryExecutor = database.getQueryExecutor();
+        observeHead(earthquakeEventDao.observeLatestEarthquakeEvents(PAGE_SIZE));
+    }
+
+    public LiveData<List<EarthquakeEvent>> getEvents() {
+        return events;
+    }
+
+    /**
+     * Extend the list by one page, e.g. when it is scrolled close to its end
+     */
+    public void loadNextPage() {
+        List<EarthquakeEvent> current = events.getValue();
+        if (loading || endReached || current == null || current.isEmpty()) {
+            return;
+        }
+        loading = true;
+        EarthquakeEvent last = current.get(current.size() - 1);
+        long timestamp = last.getTimestamp().getTime();
+        long id = last.getId();
+        queryExecutor.execute(() -> {
+            List<EarthquakeEvent> page = earthquakeEventDao.getEarthquakeEventsBefore(timestamp, id, PAGE_SIZE);
+            mainHandler.post(() -> {
+                loading = false;
+                if (page.isEmpty()) {
+                    setEndReached(timestamp, id);
+                    return;
+                }
+                olderPages.addAll(page);
+                publish();
+            });
+        });
+    }
+
+    private void observeHead(LiveData<List<EarthquakeEvent>> source) {
+        if (headSource != null) {
+            events.removeSource(headSource);
+        }
+        headSource = source;
+        events.addSource(source, value -> {
+            head = value;
+            if (!headBounded && !value.isEmpty()) {
+                // A LIMIT query would let new events push its last rows out of the
+                // list, pin the head to the key range of the first page instead
+                headBounded = true;
+                EarthquakeEvent last = value.get(value.size() - 1);
+                observeHead(earthquakeEventDao.observeEarthquakeEventsSince(
+                    last.getTimestamp().getTime(), last.getId()));
+            }
+            publish();
+        });
+    }
+
+    private void setEndReached(long timestamp, long id) {
+        endReached = true;
+        olderEventsSource = earthquakeEventDao.observeHasEarthquakeEventsBefore(timestamp, id);
+        events.addSource(olderEventsSource, hasOlder -> {
+            if (Boolean.TRUE.equals(hasOlder)) {
+                // Older events were inserted later, e.g. by an import
+                events.removeSource(olderEventsSource);
+                olderEventsSource = null;
+                endReached = false;
+            }
+        });
+    }
+
+    private void publish() {
+        if (olderPages.isEmpty()) {
+            events.setValue(head);
+            return;
+        }
+        List<EarthquakeEvent> merged = new ArrayList<>(head.size() + olderPages.size());
+        merged.addAll(head);
+        merged.addAll(olderPages);
+        events.setValue(merged);
+    }
+}
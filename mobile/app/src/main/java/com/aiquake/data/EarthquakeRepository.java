@@ -2,36 +2,44 @@ package com.aiquake.data;
 
 import android.app.Application;
 import androidx.lifecycle.LiveData;
+import com.aiquake.data.dao.EarthquakeEventDao;
 import com.aiquake.models.EarthquakeEvent;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 
 public class EarthquakeRepository {
-    private final EarthquakeDao earthquakeDao;
+    private final EarthquakeEventDao earthquakeEventDao;
     private final LiveData<List<EarthquakeEvent>> allEarthquakeEvents;
-    private final ExecutorService executorService;
+    private final Executor writeExecutor;
+    private final AppDatabase database;
 
     public EarthquakeRepository(Application application) {
-        EarthquakeDatabase database = EarthquakeDatabase.getInstance(application);
-        earthquakeDao = database.earthquakeDao();
-        allEarthquakeEvents = earthquakeDao.getAllEarthquakeEvents();
-        executorService = Executors.newSingleThreadExecutor();
+        database = AppDatabase.getDatabase(application);
+        earthquakeEventDao = database.earthquakeEventDao();
+        allEarthquakeEvents = earthquakeEventDao.getAllEarthquakeEvents();
+        writeExecutor = AppDatabase.getWriteExecutor();
     }
 
     public LiveData<List<EarthquakeEvent>> getAllEarthquakeEvents() {
         return allEarthquakeEvents;
     }
 
+    /**
+     * A paged view of the events for scrolling lists. Call on the main thread.
+     */
+    public EarthquakeEventPager createPager() {
+        return new EarthquakeEventPager(database);
+    }
+
     public void insert(EarthquakeEvent earthquakeEvent) {
-        executorService.execute(() -> earthquakeDao.insert(earthquakeEvent));
+        writeExecutor.execute(() -> earthquakeEventDao.insert(earthquakeEvent));
     }
 
     public void update(EarthquakeEvent earthquakeEvent) {
-        executorService.execute(() -> earthquakeDao.update(earthquakeEvent));
+        writeExecutor.execute(() -> earthquakeEventDao.update(earthquakeEvent));
     }
 
     public void delete(EarthquakeEvent earthquakeEvent) {
-        executorService.execute(() -> earthquakeDao.delete(earthquakeEvent));
+        writeExecutor.execute(() -> earthquakeEventDao.delete(earthquakeEvent));
     }
-} 
\ No newline at end of file
+}
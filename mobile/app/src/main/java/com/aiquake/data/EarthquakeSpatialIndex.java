@@ -0,0 +1,109 @@
+package com.aiquake.data;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+/**
+ * SQLite R*Tree over the positions of earthquake_events, so bounding-box and
+ * nearest-event lookups take logarithmic time instead of scanning the table.
+ *
+ * Room cannot declare virtual tables, so the R*Tree is created next to the
+ * schema (on database creation and in the migration that introduced it) and
+ * kept in sync by triggers on earthquake_events. The DAO reaches it through
+ * raw queries built here. R*Tree coordinates are 32-bit floats rounded
+ * outwards, so every query also filters on the exact columns of the event.
+ * Boxes crossing the antimeridian are not supported, like the plain range
+ * query they replace.
+ */
+public final class EarthquakeSpatialIndex {
+    static final String TABLE = "earthquake_events_rtree";
+
+    private static final String SELECT_IN_BOX = "SELECT e.* FROM earthquake_events e"
+        + " JOIN " + TABLE + " r ON r.id = e.id"
+        + " WHERE r.minLat <= ? AND r.maxLat >= ? AND r.minLon <= ? AND r.maxLon >= ?"
+        + " AND e.latitude BETWEEN ? AND ? AND e.longitude BETWEEN ? AND ?";
+
+    private EarthquakeSpatialIndex() {
+    }
+
+    /**
+     * Create the R*Tree and its triggers, and index the events already stored
+     */
+    static void create(SupportSQLiteDatabase database) {
+        database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + TABLE
+            + " USING rtree(id, minLat, maxLat, minLon, maxLon)");
+        // OR REPLACE: Room's REPLACE inserts remove the old row without firing delete triggers
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS " + TABLE + "_insert AFTER INSERT ON earthquake_events BEGIN "
+            + "INSERT OR REPLACE INTO " + TABLE + " VALUES (NEW.id, NEW.latitude, NEW.latitude, NEW.longitude, NEW.longitude); "
+            + "END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS " + TABLE + "_update AFTER UPDATE OF id, latitude, longitude "
+            + "ON earthquake_events BEGIN "
+            + "DELETE FROM " + TABLE + " WHERE id = OLD.id; "
+            + "INSERT OR REPLACE INTO " + TABLE + " VALUES (NEW.id, NEW.latitude, NEW.latitude, NEW.longitude, NEW.longitude); "
+            + "END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS " + TABLE + "_delete AFTER DELETE ON earthquake_events BEGIN "
+            + "DELETE FROM " + TABLE + " WHERE id = OLD.id; "
+            + "END");
+        database.execSQL("INSERT OR REPLACE INTO " + TABLE
+            + " SELECT id, latitude, latitude, longitude, longitude FROM earthquake_events");
+    }
+
+    /**
+     * Events inside a latitude/longitude box, newest first
+     */
+    public static SupportSQLiteQuery inBox(double minLat, double maxLat, double minLon, double maxLon) {
+        return new SimpleSQLiteQuery(SELECT_IN_BOX + " ORDER BY e.timestamp DESC",
+            boxArguments(minLat, maxLat, minLon, maxLon));
+    }
+
+    /**
+     * Up to {@code count} events inside a box around a point, nearest first.
+     * Distances are equirectangular, accurate enough to rank nearby events.
+     * A box spanning 360° of longitude or more covers every longitude.
+     */
+    public static SupportSQLiteQuery nearestInBox(double latitude, double longitude, double halfSizeDegrees, int count) {
+        double lonScale = longitudeScale(latitude);
+        double lonHalfSize = halfSizeDegrees / Math.sqrt(lonScale);
+        double minLon = longitude - lonHalfSize;
+        double maxLon = longitude + lonHalfSize;
+        if (lonHalfSize >= 180) {
+            // Centred on the point the box would miss the far side of the antimeridian
+            minLon = -180;
+            maxLon = 180;
+        }
+        Object[] box = boxArguments(latitude - halfSizeDegrees, latitude + halfSizeDegrees, minLon, maxLon);
+        Object[] arguments = new Object[box.length + 6];
+        System.arraycopy(box, 0, arguments, 0, box.length);
+        arguments[box.length] = latitude;
+        arguments[box.length + 1] = latitude;
+        arguments[box.length + 2] = longitude;
+        arguments[box.length + 3] = longitude;
+        arguments[box.length + 4] = lonScale;
+        arguments[box.length + 5] = count;
+        return new SimpleSQLiteQuery(SELECT_IN_BOX
+            + " ORDER BY (e.latitude - ?) * (e.latitude - ?) + (e.longitude - ?) * (e.longitude - ?) * ? LIMIT ?",
+            arguments);
+    }
+
+    /**
+     * Squared equirectangular distance in degrees, the ordering used by {@link #nearestInBox}
+     */
+    public static double distanceSquared(double latitude, double longitude, double otherLatitude, double otherLongitude) {
+        double dLat = otherLatitude - latitude;
+        double dLon = otherLongitude - longitude;
+        return dLat * dLat + dLon * dLon * longitudeScale(latitude);
+    }
+
+    // Squared length of a degree of longitude relative to a degree of latitude,
+    // floored so the box stays finite near the poles
+    private static double longitudeScale(double latitude) {
+        double cos = Math.cos(Math.toRadians(latitude));
+        return Math.max(cos * cos, 1e-4);
+    }
+
+    private static Object[] boxArguments(double minLat, double maxLat, double minLon, double maxLon) {
+        // An R*Tree entry overlaps the box when its min is below the box max and its max above the box min
+        return new Object[]{maxLat, minLat, maxLon, minLon, minLat, maxLat, minLon, maxLon};
+    }
+}
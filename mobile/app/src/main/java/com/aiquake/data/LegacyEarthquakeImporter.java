@@ -0,0 +1,107 @@
+package com.aiquake.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import com.aiquake.data.dao.EarthquakeEventDao;
+import com.aiquake.models.EarthquakeEvent;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Moves the events of the former "earthquake_database" into AppDatabase and
+ * deletes the old file, so the app only ever keeps one database open.
+ *
+ * The file is only deleted once every row has been read and the insert has
+ * committed. A failed read keeps it for the next start to retry, and rows
+ * already present in AppDatabase are skipped, so an import interrupted
+ * between the insert and the delete does not duplicate events.
+ */
+final class LegacyEarthquakeImporter {
+    private static final String TAG = "LegacyImporter";
+    static final String LEGACY_DATABASE_NAME = "earthquake_database";
+
+    private LegacyEarthquakeImporter() {
+    }
+
+    /**
+     * Import and delete the legacy database if it is still on disk. Runs on the write executor.
+     */
+    static void importIfPresent(Context context, AppDatabase database) {
+        File legacyFile = context.getDatabasePath(LEGACY_DATABASE_NAME);
+        if (!legacyFile.exists()) {
+            return;
+        }
+
+        List<EarthquakeEvent> events;
+        try {
+            events = readEvents(legacyFile);
+        } catch (RuntimeException e) {
+            // Keep the file, the next start tries again
+            Log.e(TAG, "Could not read the legacy database, keeping it", e);
+            return;
+        }
+
+        int imported;
+        try {
+            imported = database.runInTransaction(() -> insertMissing(database.earthquakeEventDao(), events));
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Could not import the legacy database, keeping it", e);
+            return;
+        }
+        context.deleteDatabase(LEGACY_DATABASE_NAME);
+        Log.d(TAG, "Imported " + imported + " of " + events.size() + " events from " + LEGACY_DATABASE_NAME);
+    }
+
+    /**
+     * Every event of the legacy file, or an empty list if it never got the table
+     * @throws RuntimeException if the file or one of its rows cannot be read
+     */
+    private static List<EarthquakeEvent> readEvents(File legacyFile) {
+        List<EarthquakeEvent> events = new ArrayList<>();
+        try (SQLiteDatabase legacy = SQLiteDatabase.openDatabase(legacyFile.getPath(), null,
+                SQLiteDatabase.OPEN_READONLY)) {
+            try (Cursor tables = legacy.rawQuery("SELECT 1 FROM sqlite_master "
+                    + "WHERE type = 'table' AND name = 'earthquake_events'", null)) {
+                if (!tables.moveToFirst()) {
+                    return events;
+                }
+            }
+            try (Cursor cursor = legacy.rawQuery("SELECT magnitude, latitude, longitude, depth, location, "
+                    + "timestamp, confidence FROM earthquake_events", null)) {
+                while (cursor.moveToNext()) {
+                    events.add(new EarthquakeEvent(
+                        cursor.getDouble(0),
+                        cursor.getDouble(1),
+                        cursor.getDouble(2),
+                        cursor.getDouble(3),
+                        cursor.isNull(4) ? null : cursor.getString(4),
+                        new Date(cursor.isNull(5) ? 0 : cursor.getLong(5)),
+                        cursor.getDouble(6)
+                    ));
+                }
+            }
+        }
+        return events;
+    }
+
+    // Ids are reassigned, so an event counts as imported when its time, position and magnitude match
+    private static int insertMissing(EarthquakeEventDao dao, List<EarthquakeEvent> events) {
+        List<EarthquakeEvent> missing = new ArrayList<>(events.size());
+        for (EarthquakeEvent event : events) {
+            if (dao.countEarthquakeEvents(event.getTimestamp().getTime(), event.getLatitude(),
+                    event.getLongitude(), event.getMagnitude()) == 0) {
+                missing.add(event);
+            }
+        }
+        if (!missing.isEmpty()) {
+            dao.insertAll(missing);
+        }
+        return missing.size();
+    }
+}
@@ -0,0 +1,173 @@
+package com.aiquake.data;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.aiquake.capture.SampleBlockEncoder;
+import com.aiquake.data.dao.SensorBlockDao;
+import com.aiquake.data.entity.SensorBlock;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Coalesces sensor samples into batched database writes.
+ *
+ * Samples are appended into primitive arrays on the sensor thread, with no
+ * allocation per sample. A batch is handed to the write executor when it is
+ * full or when its oldest sample is older than the flush interval. It is
+ * then encoded by {@link SampleBlockEncoder} and stored as one
+ * {@link SensorBlock} row, at about a tenth of the space of a row per sample.
+ *
+ * A fixed number of batches is allocated up front. When all of them are
+ * waiting to be written the disk is falling behind, so new samples are
+ * dropped and counted instead of blocking the sensor thread or growing the
+ * heap. Writing resumes as soon as a batch is returned.
+ *
+ * {@link #append}, {@link #flush} and {@link #close} must be called from one thread.
+ */
+public class SensorDataWriter {
+    private static final String TAG = "SensorDataWriter";
+
+    public static final int DEFAULT_BATCH_SIZE = 1000; // 5 seconds at 200 Hz
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10 * 1000; // 10 seconds
+    public static final int DEFAULT_MAX_PENDING_BATCHES = 4;
+
+    private final SensorBlockDao sensorBlockDao;
+    private final Executor writeExecutor;
+    private final long flushIntervalNanos;
+    private final ConcurrentLinkedQueue<Batch> freeBatches = new ConcurrentLinkedQueue<>();
+    private final SampleBlockEncoder encoder = new SampleBlockEncoder(); // Only used by the write executor
+
+    private Batch currentBatch;
+    private long droppedSamples;
+    private boolean closed;
+
+    public SensorDataWriter(SensorBlockDao sensorBlockDao, Executor writeExecutor) {
+        this(sensorBlockDao, writeExecutor, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS,
+            DEFAULT_MAX_PENDING_BATCHES);
+    }
+
+    /**
+     * @param maxPendingBatches Batches that may be filling or waiting for the disk at the same time
+     */
+    public SensorDataWriter(SensorBlockDao sensorBlockDao, Executor writeExecutor,
+                            int batchSize, long flushIntervalMillis, int maxPendingBatches) {
+        if (batchSize <= 0 || maxPendingBatches <= 0) {
+            throw new IllegalArgumentException("Batch size and pending batches must be positive");
+        }
+        this.sensorBlockDao = sensorBlockDao;
+        this.writeExecutor = writeExecutor;
+        this.flushIntervalNanos = flushIntervalMillis * 1_000_000L;
+        for (int i = 0; i < maxPendingBatches; i++) {
+            freeBatches.add(new Batch(batchSize));
+        }
+    }
+
+    /**
+     * @param timestampNanos Sample time in the {@link SystemClock#elapsedRealtimeNanos()} base
+     */
+    public void append(long timestampNanos, float x, float y, float z, boolean potentialEarthquake) {
+        if (closed) {
+            return;
+        }
+        if (currentBatch == null) {
+            currentBatch = freeBatches.poll();
+            if (currentBatch == null) {
+                // Every batch is queued for the disk: shed load rather than stall detection
+                droppedSamples++;
+                return;
+            }
+            if (droppedSamples > 0) {
+                Log.w(TAG, "Disk caught up, " + droppedSamples + " samples were dropped");
+                droppedSamples = 0;
+            }
+        }
+
+        Batch batch = currentBatch;
+        batch.add(timestampNanos, x, y, z, potentialEarthquake);
+        if (batch.isFull() || timestampNanos - batch.timestamps[0] >= flushIntervalNanos) {
+            flush();
+        }
+    }
+
+    /**
+     * Hand the samples collected so far to the write executor
+     */
+    public void flush() {
+        Batch batch = currentBatch;
+        if (batch == null || batch.count == 0) {
+            return;
+        }
+        currentBatch = null;
+        writeExecutor.execute(() -> write(batch));
+    }
+
+    /**
+     * Flush the remaining samples and ignore any further ones
+     */
+    public void close() {
+        flush();
+        closed = true;
+    }
+
+    /**
+     * Samples dropped since the disk last caught up
+     */
+    public long getDroppedSamples() {
+        return droppedSamples;
+    }
+
+    private void write(Batch batch) {
+        try {
+            // Sensor timestamps count from boot, date the block by the wall clock
+            long offsetMillis = System.currentTimeMillis() - SystemClock.elapsedRealtimeNanos() / 1_000_000L;
+            byte[] data = encoder.encode(batch.timestamps, batch.x, batch.y, batch.z, 0, batch.count);
+            sensorBlockDao.insert(new SensorBlock(
+                offsetMillis + batch.timestamps[0] / 1_000_000L,
+                offsetMillis + batch.timestamps[batch.count - 1] / 1_000_000L,
+                batch.count,
+                batch.potentialEarthquake,
+                data
+            ));
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Failed to write " + batch.count + " sensor samples", e);
+        } finally {
+            batch.count = 0;
+            batch.potentialEarthquake = false;
+            freeBatches.add(batch);
+        }
+    }
+
+    /**
+     * Samples waiting to be written, stored column by column
+     */
+    private static final class Batch {
+        final long[] timestamps;
+        final float[] x;
+        final float[] y;
+        final float[] z;
+        boolean potentialEarthquake;
+        int count;
+
+        Batch(int capacity) {
+            timestamps = new long[capacity];
+            x = new float[capacity];
+            y = new float[capacity];
+            z = new float[capacity];
+        }
+
+        void add(long timestampNanos, float x, float y, float z, boolean potentialEarthquake) {
+            timestamps[count] = timestampNanos;
+            this.x[count] = x;
+            this.y[count] = y;
+            this.z[count] = z;
+            this.potentialEarthquake |= potentialEarthquake;
+            count++;
+        }
+
+        boolean isFull() {
+            return count == timestamps.length;
+        }
+    }
+}
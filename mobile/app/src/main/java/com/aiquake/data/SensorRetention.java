@@ -0,0 +1,228 @@
+package com.aiquake.data;
+
+import android.util.Log;
+
+import com.aiquake.capture.SampleBlockDecoder;
+import com.aiquake.data.dao.SensorBlockDao;
+import com.aiquake.data.dao.SensorDataDao;
+import com.aiquake.data.dao.SensorSummaryDao;
+import com.aiquake.data.entity.SensorBlock;
+import com.aiquake.data.entity.SensorSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tiered retention of the sensor history, so the database stops growing on
+ * devices that run for months:
+ * <ul>
+ *     <li>Raw sample blocks for the last {@link #RAW_RETENTION_MILLIS}, and
+ *     blocks around detections for {@link #EVENT_RAW_RETENTION_MILLIS}</li>
+ *     <li>One-minute summaries for {@link #MINUTE_RETENTION_MILLIS}</li>
+ *     <li>One-hour summaries for {@link #HOUR_RETENTION_MILLIS}</li>
+ * </ul>
+ * Raw blocks are summarized before they are deleted, and minute summaries are
+ * rolled up into hours, so each tier is built from the one below. The raw tier
+ * is also capped at {@link #MAX_RAW_BYTES}: past that, the oldest blocks are
+ * summarized early. Each step runs in chunks, one transaction per chunk, so a
+ * long backlog never holds the database for long.
+ *
+ * {@link #compact} does blocking database work, run it on a background thread.
+ */
+public class SensorRetention {
+    private static final String TAG = "SensorRetention";
+
+    public static final long MINUTE_MILLIS = 60 * 1000;
+    public static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+
+    public static final long RAW_RETENTION_MILLIS = 30 * MINUTE_MILLIS;
+    public static final long EVENT_RAW_RETENTION_MILLIS = 7 * DAY_MILLIS;
+    public static final long MINUTE_RETENTION_MILLIS = DAY_MILLIS;
+    public static final long HOUR_RETENTION_MILLIS = 30 * DAY_MILLIS;
+    public static final long MAX_RAW_BYTES = 64L * 1024 * 1024; // 64 MB
+
+    private static final float STANDARD_GRAVITY = 9.80665f; // m/s²
+    private static final int BLOCKS_PER_TRANSACTION = 50;
+    private static final int SUMMARIES_PER_TRANSACTION = 500;
+
+    private final AppDatabase database;
+    private final SensorBlockDao sensorBlockDao;
+    private final SensorSummaryDao sensorSummaryDao;
+    private final SensorDataDao sensorDataDao;
+
+    public SensorRetention(AppDatabase database) {
+        this.database = database;
+        this.sensorBlockDao = database.sensorBlockDao();
+        this.sensorSummaryDao = database.sensorSummaryDao();
+        this.sensorDataDao = database.sensorDataDao();
+    }
+
+    /**
+     * Move data down the tiers and drop what has expired
+     * @param now Wall clock millis
+     */
+    public void compact(long now) {
+        int blocks = 0;
+        List<SensorBlock> expired;
+        while (!(expired = sensorBlockDao.getBlocksOlderThan(now - RAW_RETENTION_MILLIS,
+                now - EVENT_RAW_RETENTION_MILLIS, BLOCKS_PER_TRANSACTION)).isEmpty()) {
+            summarizeBlocks(expired);
+            blocks += expired.size();
+        }
+        // Sum the table once and count down, SUM(LENGTH(data)) reads every block.
+        // Blocks written meanwhile are left for the next run
+        long storedBytes = sensorBlockDao.getStoredBytes();
+        while (storedBytes > MAX_RAW_BYTES) {
+            List<SensorBlock> oldest = sensorBlockDao.getOldestBlocks(BLOCKS_PER_TRANSACTION);
+            if (oldest.isEmpty()) {
+                break;
+            }
+            summarizeBlocks(oldest);
+            blocks += oldest.size();
+            for (SensorBlock block : oldest) {
+                storedBytes -= block.getData().length;
+            }
+        }
+
+        int minutes = 0;
+        List<SensorSummary> expiredMinutes;
+        while (!(expiredMinutes = sensorSummaryDao.getSummariesOlderThan(MINUTE_MILLIS,
+                now - MINUTE_RETENTION_MILLIS, SUMMARIES_PER_TRANSACTION)).isEmpty()) {
+            rollUp(expiredMinutes, HOUR_MILLIS);
+            minutes += expiredMinutes.size();
+        }
+        sensorSummaryDao.deleteOlderThan(HOUR_MILLIS, now - HOUR_RETENTION_MILLIS);
+
+        // Rows from before sample blocks existed
+        sensorDataDao.deleteOlderThan(now - RAW_RETENTION_MILLIS);
+
+        if (blocks > 0 || minutes > 0) {
+            Log.d(TAG, "Summarized " + blocks + " raw blocks and " + minutes + " minute summaries");
+        }
+    }
+
+    private void summarizeBlocks(List<SensorBlock> blocks) {
+        TreeMap<Long, Bucket> buckets = new TreeMap<>();
+        List<Long> ids = new ArrayList<>(blocks.size());
+        for (SensorBlock block : blocks) {
+            ids.add(block.getId());
+            SampleBlockDecoder decoder;
+            try {
+                decoder = new SampleBlockDecoder(block.getData());
+            } catch (IllegalArgumentException e) {
+                Log.e(TAG, "Dropping unreadable sample block " + block.getId(), e);
+                continue;
+            }
+            // Sample timestamps count from boot, the block start dates the first one
+            long firstTimestampNanos = 0;
+            boolean first = true;
+            while (decoder.next()) {
+                if (first) {
+                    firstTimestampNanos = decoder.getTimestampNanos();
+                    first = false;
+                }
+                long time = block.getStartTime() + (decoder.getTimestampNanos() - firstTimestampNanos) / 1_000_000L;
+                bucketFor(buckets, MINUTE_MILLIS, time)
+                    .add(decoder.getX(), decoder.getY(), decoder.getZ(), block.isPotentialEarthquake());
+            }
+        }
+        database.runInTransaction(() -> {
+            store(buckets, MINUTE_MILLIS);
+            sensorBlockDao.deleteByIds(ids);
+        });
+    }
+
+    private void rollUp(List<SensorSummary> summaries, long resolutionMillis) {
+        TreeMap<Long, Bucket> buckets = new TreeMap<>();
+        List<Long> ids = new ArrayList<>(summaries.size());
+        for (SensorSummary summary : summaries) {
+            ids.add(summary.getId());
+            bucketFor(buckets, resolutionMillis, summary.getBucketStart()).merge(summary);
+        }
+        database.runInTransaction(() -> {
+            store(buckets, resolutionMillis);
+            sensorSummaryDao.deleteByIds(ids);
+        });
+    }
+
+    /**
+     * Merge the buckets with the stored summaries they overlap and write them back
+     */
+    private void store(TreeMap<Long, Bucket> buckets, long resolutionMillis) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        List<SensorSummary> storedSummaries = sensorSummaryDao.getSummariesBetween(resolutionMillis,
+            buckets.firstKey(), buckets.lastKey());
+        for (SensorSummary stored : storedSummaries) {
+            Bucket bucket = buckets.get(stored.getBucketStart());
+            if (bucket != null) {
+                bucket.merge(stored);
+            }
+        }
+        List<SensorSummary> summaries = new ArrayList<>(buckets.size());
+        for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+            summaries.add(entry.getValue().toSummary(resolutionMillis, entry.getKey()));
+        }
+        sensorSummaryDao.insertAll(summaries);
+    }
+
+    private static Bucket bucketFor(Map<Long, Bucket> buckets, long resolutionMillis, long time) {
+        long start = time - time % resolutionMillis; // Wall clock times are positive
+        Bucket bucket = buckets.get(start);
+        if (bucket == null) {
+            bucket = new Bucket();
+            buckets.put(start, bucket);
+        }
+        return bucket;
+    }
+
+    /**
+     * Running min/max/RMS of one bucket, mergeable with stored summaries
+     */
+    private static final class Bucket {
+        int count;
+        float minX = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        float minZ = Float.POSITIVE_INFINITY;
+        float maxZ = Float.NEGATIVE_INFINITY;
+        double sumSquares;
+        boolean potentialEarthquake;
+
+        void add(float x, float y, float z, boolean triggered) {
+            count++;
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+            minZ = Math.min(minZ, z);
+            maxZ = Math.max(maxZ, z);
+            double dynamic = Math.sqrt(x * x + y * y + z * z) - STANDARD_GRAVITY;
+            sumSquares += dynamic * dynamic;
+            potentialEarthquake |= triggered;
+        }
+
+        void merge(SensorSummary summary) {
+            count += summary.getSampleCount();
+            minX = Math.min(minX, summary.getMinX());
+            maxX = Math.max(maxX, summary.getMaxX());
+            minY = Math.min(minY, summary.getMinY());
+            maxY = Math.max(maxY, summary.getMaxY());
+            minZ = Math.min(minZ, summary.getMinZ());
+            maxZ = Math.max(maxZ, summary.getMaxZ());
+            sumSquares += (double) summary.getRms() * summary.getRms() * summary.getSampleCount();
+            potentialEarthquake |= summary.isPotentialEarthquake();
+        }
+
+        SensorSummary toSummary(long resolutionMillis, long bucketStart) {
+            float rms = count == 0 ? 0f : (float) Math.sqrt(sumSquares / count);
+            return new SensorSummary(resolutionMillis, bucketStart, count,
+                minX, maxX, minY, maxY, minZ, maxZ, rms, potentialEarthquake);
+        }
+    }
+}
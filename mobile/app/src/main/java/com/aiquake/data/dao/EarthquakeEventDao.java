@@ -2,11 +2,16 @@ package com.aiquake.data.dao;
 
 import androidx.lifecycle.LiveData;
 import androidx.room.*;
-import com.aiquake.data.entity.EarthquakeEvent;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import com.aiquake.data.EarthquakeSpatialIndex;
+import com.aiquake.models.EarthquakeEvent;
+import java.util.Collections;
 import java.util.List;
 
 @Dao
 public interface EarthquakeEventDao {
+    double NEAREST_INITIAL_HALF_SIZE_DEGREES = 1;
+
     @Insert
     void insert(EarthquakeEvent earthquakeEvent);
 
@@ -22,12 +27,70 @@ public interface EarthquakeEventDao {
     @Query("SELECT * FROM earthquake_events ORDER BY timestamp DESC")
     LiveData<List<EarthquakeEvent>> getAllEarthquakeEvents();
 
+    // Keyset pages for EarthquakeEventPager, newest first with id as tie-break. The
+    // timestamp bound comes first so SQLite seeks the timestamp index instead of scanning it
+    @Query("SELECT * FROM earthquake_events ORDER BY timestamp DESC, id ASC LIMIT :limit")
+    LiveData<List<EarthquakeEvent>> observeLatestEarthquakeEvents(int limit);
+
+    @Query("SELECT * FROM earthquake_events WHERE timestamp >= :timestamp AND (timestamp > :timestamp OR id <= :id) ORDER BY timestamp DESC, id ASC")
+    LiveData<List<EarthquakeEvent>> observeEarthquakeEventsSince(long timestamp, long id);
+
+    @Query("SELECT * FROM earthquake_events WHERE timestamp <= :timestamp AND (timestamp < :timestamp OR id > :id) ORDER BY timestamp DESC, id ASC LIMIT :limit")
+    List<EarthquakeEvent> getEarthquakeEventsBefore(long timestamp, long id, int limit);
+
+    @Query("SELECT EXISTS(SELECT 1 FROM earthquake_events WHERE timestamp <= :timestamp AND (timestamp < :timestamp OR id > :id))")
+    LiveData<Boolean> observeHasEarthquakeEventsBefore(long timestamp, long id);
+
     @Query("SELECT * FROM earthquake_events WHERE timestamp >= :startTime AND timestamp <= :endTime ORDER BY timestamp DESC")
     LiveData<List<EarthquakeEvent>> getEarthquakeEventsInTimeRange(long startTime, long endTime);
 
+    // Seeks the timestamp index, used to recognise events that were already imported
+    @Query("SELECT COUNT(*) FROM earthquake_events WHERE timestamp = :timestamp AND latitude = :latitude AND longitude = :longitude AND magnitude = :magnitude")
+    int countEarthquakeEvents(long timestamp, double latitude, double longitude, double magnitude);
+
     @Query("SELECT * FROM earthquake_events WHERE magnitude >= :minMagnitude ORDER BY timestamp DESC")
     LiveData<List<EarthquakeEvent>> getEarthquakeEventsByMagnitude(float minMagnitude);
 
-    @Query("SELECT * FROM earthquake_events WHERE latitude BETWEEN :minLat AND :maxLat AND longitude BETWEEN :minLon AND :maxLon ORDER BY timestamp DESC")
-    LiveData<List<EarthquakeEvent>> getEarthquakeEventsInRegion(double minLat, double maxLat, double minLon, double maxLon);
+    // The cells narrow the search through the gridCell index, the coordinates trim the cell edges
+    @Query("SELECT * FROM earthquake_events WHERE gridCell IN (:cells) AND latitude BETWEEN :minLat AND :maxLat AND longitude BETWEEN :minLon AND :maxLon ORDER BY timestamp DESC")
+    LiveData<List<EarthquakeEvent>> getEarthquakeEventsInCells(int[] cells, double minLat, double maxLat, double minLon, double maxLon);
+
+    // Queries through the R*Tree, which Room cannot check at compile time
+    @RawQuery(observedEntities = EarthquakeEvent.class)
+    LiveData<List<EarthquakeEvent>> observeEarthquakeEvents(SupportSQLiteQuery query);
+
+    @RawQuery
+    List<EarthquakeEvent> queryEarthquakeEvents(SupportSQLiteQuery query);
+
+    // Map viewports
+    default LiveData<List<EarthquakeEvent>> getEarthquakeEventsInRegion(double minLat, double maxLat, double minLon, double maxLon) {
+        return observeEarthquakeEvents(EarthquakeSpatialIndex.inBox(minLat, maxLat, minLon, maxLon));
+    }
+
+    /**
+     * Up to {@code count} events nearest to a point, nearest first. Blocking, call it off the main thread.
+     */
+    default List<EarthquakeEvent> getNearestEarthquakeEvents(double latitude, double longitude, int count) {
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        // Events outside the box are farther than its half size: grow the box until
+        // it holds enough events and the farthest of them is within that distance
+        for (double halfSize = NEAREST_INITIAL_HALF_SIZE_DEGREES; ; halfSize *= 2) {
+            List<EarthquakeEvent> events = queryEarthquakeEvents(
+                EarthquakeSpatialIndex.nearestInBox(latitude, longitude, halfSize, count));
+            if (halfSize >= 180) {
+                // The box spans every latitude and longitude, nothing is left outside
+                return events;
+            }
+            if (events.size() == count) {
+                EarthquakeEvent farthest = events.get(count - 1);
+                double distanceSquared = EarthquakeSpatialIndex.distanceSquared(latitude, longitude,
+                    farthest.getLatitude(), farthest.getLongitude());
+                if (distanceSquared <= halfSize * halfSize) {
+                    return events;
+                }
+            }
+        }
+    }
 } 
\ No newline at end of file
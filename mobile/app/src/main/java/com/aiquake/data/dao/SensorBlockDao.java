@@ -0,0 +1,34 @@
+package com.aiquake.data.dao;
+
+import androidx.room.*;
+import com.aiquake.data.entity.SensorBlock;
+import java.util.List;
+
+@Dao
+public interface SensorBlockDao {
+    @Insert
+    void insert(SensorBlock sensorBlock);
+
+    // Blocks overlapping the period, oldest first so samples decode in order
+    @Query("SELECT * FROM sensor_blocks WHERE startTime <= :endTime AND endTime >= :startTime ORDER BY startTime")
+    List<SensorBlock> getBlocksBetween(long startTime, long endTime);
+
+    @Query("SELECT * FROM sensor_blocks WHERE potentialEarthquake = 1 ORDER BY startTime DESC")
+    List<SensorBlock> getPotentialEarthquakeBlocks();
+
+    // Raw blocks past their retention, events are kept longer than background motion
+    @Query("SELECT * FROM sensor_blocks WHERE endTime < :timestamp AND (potentialEarthquake = 0 OR endTime < :eventTimestamp) ORDER BY startTime LIMIT :limit")
+    List<SensorBlock> getBlocksOlderThan(long timestamp, long eventTimestamp, int limit);
+
+    @Query("SELECT * FROM sensor_blocks ORDER BY startTime LIMIT :limit")
+    List<SensorBlock> getOldestBlocks(int limit);
+
+    @Query("DELETE FROM sensor_blocks WHERE id IN (:ids)")
+    void deleteByIds(List<Long> ids);
+
+    @Query("SELECT COALESCE(SUM(LENGTH(data)), 0) FROM sensor_blocks")
+    long getStoredBytes();
+
+    @Query("DELETE FROM sensor_blocks WHERE endTime < :timestamp")
+    void deleteOlderThan(long timestamp);
+}
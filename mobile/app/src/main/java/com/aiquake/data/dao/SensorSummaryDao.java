@@ -0,0 +1,24 @@
+package com.aiquake.data.dao;
+
+import androidx.room.*;
+import com.aiquake.data.entity.SensorSummary;
+import java.util.List;
+
+@Dao
+public interface SensorSummaryDao {
+    // Merged buckets replace the stored row with the same resolution and start
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<SensorSummary> summaries);
+
+    @Query("SELECT * FROM sensor_summaries WHERE resolutionMillis = :resolutionMillis AND bucketStart BETWEEN :startTime AND :endTime ORDER BY bucketStart")
+    List<SensorSummary> getSummariesBetween(long resolutionMillis, long startTime, long endTime);
+
+    @Query("SELECT * FROM sensor_summaries WHERE resolutionMillis = :resolutionMillis AND bucketStart < :timestamp ORDER BY bucketStart LIMIT :limit")
+    List<SensorSummary> getSummariesOlderThan(long resolutionMillis, long timestamp, int limit);
+
+    @Query("DELETE FROM sensor_summaries WHERE id IN (:ids)")
+    void deleteByIds(List<Long> ids);
+
+    @Query("DELETE FROM sensor_summaries WHERE resolutionMillis = :resolutionMillis AND bucketStart < :timestamp")
+    void deleteOlderThan(long resolutionMillis, long timestamp);
+}
@@ -1,11 +1,16 @@
 package com.aiquake.data.entity;
 
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 import androidx.annotation.NonNull;
 
 @Entity(tableName = "detection_settings")
 public class DetectionSettings {
+    public static final float DEFAULT_SENSITIVITY_LEVEL = 0.5f; // 0 (least) to 1 (most sensitive)
+    public static final int DEFAULT_SAMPLING_RATE = 100; // Hz while shaking is suspected
+    public static final int DEFAULT_HOLD_OFF_SECONDS = 60; // Quiet time before sampling slows down again
+
     @PrimaryKey
     private int id = 1; // We'll only have one settings record
 
@@ -14,6 +19,9 @@ public class DetectionSettings {
     private boolean notificationEnabled;
     private long lastUpdated;
 
+    @ColumnInfo(defaultValue = "60")
+    private int holdOffSeconds = DEFAULT_HOLD_OFF_SECONDS;
+
     public DetectionSettings(float sensitivityLevel, int samplingRate, boolean notificationEnabled) {
         this.sensitivityLevel = sensitivityLevel;
         this.samplingRate = samplingRate;
@@ -57,6 +65,15 @@ public class DetectionSettings {
         this.lastUpdated = System.currentTimeMillis();
     }
 
+    public int getHoldOffSeconds() {
+        return holdOffSeconds;
+    }
+
+    public void setHoldOffSeconds(int holdOffSeconds) {
+        this.holdOffSeconds = holdOffSeconds;
+        this.lastUpdated = System.currentTimeMillis();
+    }
+
     public long getLastUpdated() {
         return lastUpdated;
     }
@@ -0,0 +1,84 @@
+package com.aiquake.data.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * A time bucket of raw accelerometer samples, stored as one compressed blob
+ * written by {@link com.aiquake.capture.SampleBlockEncoder}. Read the samples
+ * back with {@link com.aiquake.capture.SampleBlockDecoder}.
+ */
+@Entity(tableName = "sensor_blocks", indices = {@Index("startTime")})
+public class SensorBlock {
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private long startTime; // Wall clock millis of the first sample
+    private long endTime; // Wall clock millis of the last sample
+    private int sampleCount;
+    private boolean potentialEarthquake; // Any sample in the block was triggered
+
+    @NonNull
+    private byte[] data;
+
+    public SensorBlock(long startTime, long endTime, int sampleCount, boolean potentialEarthquake,
+                       @NonNull byte[] data) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.sampleCount = sampleCount;
+        this.potentialEarthquake = potentialEarthquake;
+        this.data = data;
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(int sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public boolean isPotentialEarthquake() {
+        return potentialEarthquake;
+    }
+
+    public void setPotentialEarthquake(boolean potentialEarthquake) {
+        this.potentialEarthquake = potentialEarthquake;
+    }
+
+    @NonNull
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(@NonNull byte[] data) {
+        this.data = data;
+    }
+}
@@ -0,0 +1,141 @@
+package com.aiquake.data.entity;
+
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Downsampled sensor history: min/max per axis and the RMS of the dynamic
+ * acceleration over one time bucket, kept after the raw samples are dropped.
+ */
+@Entity(tableName = "sensor_summaries",
+    indices = {@Index(value = {"resolutionMillis", "bucketStart"}, unique = true)})
+public class SensorSummary {
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private long resolutionMillis; // Bucket length, e.g. one minute or one hour
+    private long bucketStart; // Wall clock millis, a multiple of resolutionMillis
+    private int sampleCount;
+    private float minX;
+    private float maxX;
+    private float minY;
+    private float maxY;
+    private float minZ;
+    private float maxZ;
+    private float rms; // RMS of |a| - g, m/s²
+    private boolean potentialEarthquake;
+
+    public SensorSummary(long resolutionMillis, long bucketStart, int sampleCount,
+                         float minX, float maxX, float minY, float maxY, float minZ, float maxZ,
+                         float rms, boolean potentialEarthquake) {
+        this.resolutionMillis = resolutionMillis;
+        this.bucketStart = bucketStart;
+        this.sampleCount = sampleCount;
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.minZ = minZ;
+        this.maxZ = maxZ;
+        this.rms = rms;
+        this.potentialEarthquake = potentialEarthquake;
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getResolutionMillis() {
+        return resolutionMillis;
+    }
+
+    public void setResolutionMillis(long resolutionMillis) {
+        this.resolutionMillis = resolutionMillis;
+    }
+
+    public long getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(long bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(int sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public void setMinX(float minX) {
+        this.minX = minX;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public void setMaxX(float maxX) {
+        this.maxX = maxX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public void setMinY(float minY) {
+        this.minY = minY;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+
+    public void setMaxY(float maxY) {
+        this.maxY = maxY;
+    }
+
+    public float getMinZ() {
+        return minZ;
+    }
+
+    public void setMinZ(float minZ) {
+        this.minZ = minZ;
+    }
+
+    public float getMaxZ() {
+        return maxZ;
+    }
+
+    public void setMaxZ(float maxZ) {
+        this.maxZ = maxZ;
+    }
+
+    public float getRms() {
+        return rms;
+    }
+
+    public void setRms(float rms) {
+        this.rms = rms;
+    }
+
+    public boolean isPotentialEarthquake() {
+        return potentialEarthquake;
+    }
+
+    public void setPotentialEarthquake(boolean potentialEarthquake) {
+        this.potentialEarthquake = potentialEarthquake;
+    }
+}
@@ -1,14 +1,24 @@
 package com.aiquake.models;
 
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
-import androidx.room.TypeConverters;
-import com.aiquake.data.DateConverter;
+import com.aiquake.geo.GridCell;
 import java.io.Serializable;
 import java.util.Date;
 
-@Entity(tableName = "earthquake_events")
-@TypeConverters(DateConverter.class)
+/**
+ * An earthquake, detected on this device or reported by a feed. The single
+ * event entity of AppDatabase: the detection service writes it and the UI
+ * reads it from the same table.
+ */
+@Entity(tableName = "earthquake_events", indices = {
+    @Index(value = "timestamp", orders = Index.Order.DESC),
+    @Index("magnitude"),
+    @Index({"gridCell", "timestamp"})
+})
 public class EarthquakeEvent implements Serializable {
     @PrimaryKey(autoGenerate = true)
     @com.google.gson.annotations.SerializedName("id")
@@ -30,14 +40,18 @@ public class EarthquakeEvent implements Serializable {
     @com.google.gson.annotations.Expose
     private String location;
 
+    @NonNull
     @com.google.gson.annotations.Expose
     private Date timestamp;
 
     @com.google.gson.annotations.Expose
     private double confidence;
 
+    @ColumnInfo(defaultValue = "0")
+    private int gridCell; // GridCell of latitude/longitude, kept in sync by the setters
+
     public EarthquakeEvent(double magnitude, double latitude, double longitude, 
-                         double depth, String location, Date timestamp, double confidence) {
+                         double depth, String location, @NonNull Date timestamp, double confidence) {
         this.magnitude = magnitude;
         this.latitude = latitude;
         this.longitude = longitude;
@@ -45,6 +59,7 @@ public class EarthquakeEvent implements Serializable {
         this.location = location;
         this.timestamp = timestamp;
         this.confidence = confidence;
+        this.gridCell = GridCell.of(latitude, longitude);
     }
 
     // Getters
@@ -72,6 +87,7 @@ public class EarthquakeEvent implements Serializable {
         return location;
     }
 
+    @NonNull
     public Date getTimestamp() {
         return timestamp;
     }
@@ -80,6 +96,10 @@ public class EarthquakeEvent implements Serializable {
         return confidence;
     }
 
+    public int getGridCell() {
+        return gridCell;
+    }
+
     // Setters
     public void setId(long id) {
         this.id = id;
@@ -91,10 +111,12 @@ public class EarthquakeEvent implements Serializable {
 
     public void setLatitude(double latitude) {
         this.latitude = latitude;
+        this.gridCell = GridCell.of(latitude, longitude);
     }
 
     public void setLongitude(double longitude) {
         this.longitude = longitude;
+        this.gridCell = GridCell.of(latitude, longitude);
     }
 
     public void setDepth(double depth) {
@@ -105,11 +127,15 @@ public class EarthquakeEvent implements Serializable {
         this.location = location;
     }
 
-    public void setTimestamp(Date timestamp) {
+    public void setTimestamp(@NonNull Date timestamp) {
         this.timestamp = timestamp;
     }
 
     public void setConfidence(double confidence) {
         this.confidence = confidence;
     }
+
+    public void setGridCell(int gridCell) {
+        this.gridCell = gridCell;
+    }
 } 
\ No newline at end of file
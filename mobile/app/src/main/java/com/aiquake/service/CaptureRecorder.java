@@ -0,0 +1,169 @@
+package com.aiquake.service;
+
+import android.content.Context;
+import android.os.Handler;
+import android.util.Log;
+
+import com.aiquake.capture.SampleRingFile;
+import com.aiquake.detection.replay.SensorTrace;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+/**
+ * Records every raw accelerometer sample into a memory-mapped ring file that
+ * covers the last few minutes, and saves the waveform around each detection.
+ *
+ * When a detection comes in, the recorder waits until the post-trigger part
+ * has been recorded, then freezes the window into an in-memory copy on the
+ * sensor thread and writes it to the captures directory in the background.
+ * Saved captures use the {@link SensorTrace} binary format, so they can be fed
+ * straight into the replay harness.
+ */
+public class CaptureRecorder {
+    private static final String TAG = "CaptureRecorder";
+
+    public static final String CAPTURE_DIRECTORY = "captures";
+    private static final String RING_FILE_NAME = "sensor_ring.bin";
+    private static final int RING_MINUTES = 5;
+    private static final int RING_MAX_RATE_HZ = 200;
+    private static final long PRE_TRIGGER_MILLIS = 60 * 1000; // 1 minute
+    private static final long POST_TRIGGER_MILLIS = 30 * 1000; // 30 seconds
+    private static final int MAX_SAVED_CAPTURES = 20;
+
+    private final Context context;
+    private final Handler sensorHandler;
+    private final Executor writeExecutor;
+    private SampleRingFile ringFile;
+
+    // Capture waiting for its post-trigger samples; later detections extend it
+    private boolean capturePending;
+    private long captureStartNanos;
+    private long captureEndNanos;
+    private long captureEventTimeMillis;
+    private final Runnable freezeCapture = this::freezeCapture;
+
+    /**
+     * @param sensorHandler Handler of the thread that delivers samples; every method must be called on it
+     * @param writeExecutor Background executor the capture files are written on
+     */
+    public CaptureRecorder(Context context, Handler sensorHandler, Executor writeExecutor) {
+        this.context = context.getApplicationContext();
+        this.sensorHandler = sensorHandler;
+        this.writeExecutor = writeExecutor;
+    }
+
+    public void open() {
+        if (ringFile != null) {
+            return;
+        }
+        File file = new File(context.getNoBackupFilesDir(), RING_FILE_NAME);
+        try {
+            ringFile = SampleRingFile.open(file, SampleRingFile.capacityFor(RING_MINUTES, RING_MAX_RATE_HZ));
+            Log.d(TAG, "Capture ring opened with " + ringFile.size() + " samples");
+        } catch (IOException e) {
+            // Detection keeps working without waveform capture
+            Log.e(TAG, "Could not open capture ring file", e);
+        }
+    }
+
+    public void append(long timestampNanos, float x, float y, float z) {
+        if (ringFile != null) {
+            ringFile.append(timestampNanos, x, y, z);
+        }
+    }
+
+    /**
+     * Save the waveform around a detection once the post-trigger samples are in
+     * @param eventTimeMillis Wall clock time of the detection, used in the file name
+     */
+    public void onDetection(long triggerTimestampNanos, long eventTimeMillis) {
+        if (ringFile == null) {
+            return;
+        }
+        long endNanos = triggerTimestampNanos + POST_TRIGGER_MILLIS * 1_000_000L;
+        if (!capturePending) {
+            capturePending = true;
+            captureStartNanos = triggerTimestampNanos - PRE_TRIGGER_MILLIS * 1_000_000L;
+            captureEventTimeMillis = eventTimeMillis;
+        }
+        captureEndNanos = endNanos;
+        sensorHandler.removeCallbacks(freezeCapture);
+        sensorHandler.postDelayed(freezeCapture, POST_TRIGGER_MILLIS);
+    }
+
+    private void freezeCapture() {
+        if (!capturePending || ringFile == null) {
+            return;
+        }
+        capturePending = false;
+        // Copy now, later samples overwrite the ring
+        SensorTrace trace = ringFile.snapshot(captureStartNanos, captureEndNanos);
+        long eventTimeMillis = captureEventTimeMillis;
+        writeExecutor.execute(() -> saveCapture(trace, eventTimeMillis));
+    }
+
+    /**
+     * Save a pending capture with what has been recorded so far, on the calling thread
+     */
+    private void savePendingCapture() {
+        if (!capturePending || ringFile == null) {
+            return;
+        }
+        capturePending = false;
+        saveCapture(ringFile.snapshot(captureStartNanos, captureEndNanos), captureEventTimeMillis);
+    }
+
+    private void saveCapture(SensorTrace trace, long eventTimeMillis) {
+        File directory = new File(context.getFilesDir(), CAPTURE_DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.e(TAG, "Could not create " + directory);
+            return;
+        }
+        File file = new File(directory, "capture_" + eventTimeMillis + ".bin");
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+            trace.writeBinary(output);
+            Log.d(TAG, "Saved " + trace.size() + " samples to " + file.getName());
+        } catch (IOException e) {
+            Log.e(TAG, "Could not save capture", e);
+            file.delete();
+        }
+        pruneCaptures(directory);
+    }
+
+    /**
+     * Keep only the most recent captures
+     */
+    private void pruneCaptures(File directory) {
+        File[] captures = directory.listFiles();
+        if (captures == null || captures.length <= MAX_SAVED_CAPTURES) {
+            return;
+        }
+        Arrays.sort(captures, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (int i = 0; i < captures.length - MAX_SAVED_CAPTURES; i++) {
+            captures[i].delete();
+        }
+    }
+
+    /**
+     * Save a pending capture and close the ring file. The write executor may
+     * already be shut down, so the pending capture is written synchronously.
+     */
+    public void close() {
+        sensorHandler.removeCallbacks(freezeCapture);
+        savePendingCapture();
+        if (ringFile != null) {
+            try {
+                ringFile.close();
+            } catch (IOException e) {
+                Log.e(TAG, "Error closing capture ring file", e);
+            }
+            ringFile = null;
+        }
+    }
+}
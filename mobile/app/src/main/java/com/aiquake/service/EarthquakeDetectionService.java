@@ -16,10 +16,15 @@ import android.hardware.SensorManager;
 import android.location.Address;
 import android.location.Geocoder;
 import android.location.Location;
+import android.os.Binder;
 import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.IBinder;
 import android.os.Looper;
 import android.os.PowerManager;
+import android.os.Process;
+import android.os.SystemClock;
 import android.os.VibrationEffect;
 import android.os.Vibrator;
 import android.util.Log;
@@ -28,13 +33,22 @@ import androidx.annotation.Nullable;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.core.app.NotificationCompat;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
 
 import com.aiquake.R;
 import com.aiquake.MainActivity;
 import com.aiquake.data.AppDatabase;
-import com.aiquake.data.entity.SensorData;
-import com.aiquake.data.entity.EarthquakeEvent;
-import com.aiquake.data.repository.EarthquakeRepository;
+import com.aiquake.data.SensorDataWriter;
+import com.aiquake.data.SensorRetention;
+import com.aiquake.data.entity.DetectionSettings;
+import com.aiquake.detection.DetectionFrame;
+import com.aiquake.detection.DetectionPipeline;
+import com.aiquake.detection.GroundMotion;
+import com.aiquake.detection.SamplingGovernor;
+import com.aiquake.models.EarthquakeEvent;
+import com.aiquake.utils.EventFormatter;
+import com.aiquake.utils.WakeLockManager;
 
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationCallback;
@@ -44,42 +58,139 @@ import com.google.android.gms.location.LocationServices;
 
 import java.io.IOException;
 import java.util.Date;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.LinkedList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.List;
 import java.util.Locale;
-import java.util.Queue;
 
 public class EarthquakeDetectionService extends Service implements SensorEventListener {
     private static final String CHANNEL_ID = "EarthquakeDetectionChannel";
     private static final int NOTIFICATION_ID = 1;
-    private static final float EARTHQUAKE_THRESHOLD = 15.0f; // Adjusted threshold
-    private static final long COOLDOWN_MILLIS = 10000; // 10 seconds cooldown period
     private static final String TAG = "EarthquakeService";
-    private static final int MAGNITUDE_BUFFER_SIZE = 10; // Number of readings for moving average
+    private static final long COMPACTION_INTERVAL_MINUTES = 15;
 
     private SensorManager sensorManager;
-    private Sensor accelerometer;
-    private PowerManager.WakeLock wakeLock;
-    private ExecutorService executorService;
+    private SensorAcquisition sensorAcquisition;
+    private HandlerThread sensorThread; // Sensor callbacks, pipeline and governor all run here
+    private Handler sensorHandler;
+    private final SamplingGovernor samplingGovernor = new SamplingGovernor(
+        DetectionSettings.DEFAULT_SAMPLING_RATE,
+        DetectionSettings.DEFAULT_SENSITIVITY_LEVEL,
+        DetectionSettings.DEFAULT_HOLD_OFF_SECONDS
+    );
+    private LiveData<DetectionSettings> detectionSettings;
+    private WakeLockManager wakeLockManager;
+    private PowerManager.WakeLock burstWakeLock; // Held only while sampling at the high rate
+    private long burstWakeLockRenewAtMillis; // Elapsed realtime at which the burst lock is extended
+    private ScheduledExecutorService executorService; // AppDatabase's shared write executor
+    private ScheduledFuture<?> compaction;
+    private SensorDataWriter sensorDataWriter; // Batches samples into few database transactions
+    private CaptureRecorder captureRecorder; // Raw waveform of the last minutes, saved around detections
     private AppDatabase database;
-    private EarthquakeRepository earthquakeRepository;
-    private long lastDetectionTime = 0;
-    private Queue<Float> magnitudeBuffer = new LinkedList<>();
+    private final IBinder binder = new LocalBinder();
+    private final DetectionPipeline pipeline = DetectionPipeline.createDefault();
 
     private FusedLocationProviderClient fusedLocationClient;
     private Geocoder geocoder;
 
+    public class LocalBinder extends Binder {
+        public EarthquakeDetectionService getService() {
+            return EarthquakeDetectionService.this;
+        }
+    }
+
+    /**
+     * Handles detections coming out of the pipeline
+     */
+    private final DetectionPipeline.Listener detectionListener = new DetectionPipeline.Listener() {
+        @Override
+        public void onFrame(DetectionFrame frame) {
+            sensorDataWriter.append(frame.getTimestampNanos(), frame.getRawX(), frame.getRawY(), frame.getRawZ(),
+                frame.isTriggered());
+            if (samplingGovernor.update(frame)) {
+                applySamplingDecision();
+            } else if (samplingGovernor.isHighRate()) {
+                holdBurstWakeLock();
+            }
+        }
+
+        @Override
+        public void onDetection(DetectionFrame frame) {
+            float peakAcceleration = frame.getPeak();
+            float magnitude = (float) GroundMotion.estimateMagnitude(peakAcceleration);
+            float confidence = frame.getConfidence();
+            // Batched samples can be several seconds old, date the event by the sample time
+            long currentTime = System.currentTimeMillis()
+                - (SystemClock.elapsedRealtimeNanos() - frame.getTimestampNanos()) / 1_000_000L;
+            Log.d(TAG, "Earthquake pattern detected! Peak acceleration: " + peakAcceleration
+                + " m/s², estimated magnitude: " + magnitude + ", confidence: " + confidence);
+
+            // Get last known location and create/save EarthquakeEvent
+            getLastLocationAndSaveEvent(currentTime, magnitude, confidence);
+            captureRecorder.onDetection(frame.getTimestampNanos(), currentTime);
+
+            // Show notification for the detected event
+            showEarthquakeAlert(magnitude);
+        }
+    };
+
+    private final Observer<DetectionSettings> settingsObserver = settings -> {
+        if (settings != null) {
+            sensorHandler.post(() -> applySettings(settings));
+        }
+    };
+
     @Override
     public void onCreate() {
         super.onCreate();
         Log.d(TAG, "Service created");
+        // No permanent wake lock: batched wake-up sensor delivery gets the CPU back,
+        // timed locks only cover detection bursts, database writes and uploads.
+        // Assigned first, the writer and compaction tasks below use it on the write executor
+        wakeLockManager = WakeLockManager.getInstance(this);
+        pipeline.addListener(detectionListener);
         sensorManager = (SensorManager) getSystemService(Context.SENSOR_SERVICE);
-        accelerometer = sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
+        // Process samples off the main looper so detection latency does not depend on UI work
+        sensorThread = new HandlerThread("SensorProcessing", Process.THREAD_PRIORITY_URGENT_DISPLAY);
+        sensorThread.start();
+        sensorHandler = new Handler(sensorThread.getLooper());
+        sensorAcquisition = new SensorAcquisition(sensorManager, this, sensorHandler, () -> {
+            samplingGovernor.escalate(SystemClock.elapsedRealtimeNanos());
+            applySamplingDecision();
+        });
         database = AppDatabase.getDatabase(this);
-        executorService = Executors.newSingleThreadExecutor();
-        earthquakeRepository = new EarthquakeRepository(getApplication());
+        executorService = AppDatabase.getWriteExecutor();
+        sensorDataWriter = new SensorDataWriter(database.sensorBlockDao(),
+            task -> executorService.execute(() -> wakeLockManager.runWithWakeLock("SensorDataWrite",
+                WakeLockManager.DATABASE_WRITE_TIMEOUT_MILLIS, task)));
+        captureRecorder = new CaptureRecorder(this, sensorHandler, executorService);
+        sensorHandler.post(captureRecorder::open);
+
+        // Follow the persisted detection settings, creating them on first run
+        detectionSettings = database.detectionSettingsDao().getSettings();
+        detectionSettings.observeForever(settingsObserver);
+        executorService.execute(() -> {
+            if (database.detectionSettingsDao().getSettingsSync() == null) {
+                database.detectionSettingsDao().insert(new DetectionSettings(
+                    DetectionSettings.DEFAULT_SENSITIVITY_LEVEL,
+                    DetectionSettings.DEFAULT_SAMPLING_RATE,
+                    true
+                ));
+            }
+        });
+
+        // Keep the sensor history within its retention tiers
+        SensorRetention sensorRetention = new SensorRetention(database);
+        compaction = executorService.scheduleWithFixedDelay(() -> wakeLockManager.runWithWakeLock("SensorCompaction",
+            WakeLockManager.COMPACTION_TIMEOUT_MILLIS, () -> {
+                try {
+                    sensorRetention.compact(System.currentTimeMillis());
+                } catch (RuntimeException e) {
+                    // An exception would cancel the schedule
+                    Log.e(TAG, "Sensor history compaction failed", e);
+                }
+            }), 1, COMPACTION_INTERVAL_MINUTES, TimeUnit.MINUTES);
 
         // Initialize FusedLocationProviderClient and Geocoder
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(this);
@@ -95,23 +206,18 @@ public class EarthquakeDetectionService extends Service implements SensorEventLi
             NotificationManager manager = getSystemService(NotificationManager.class);
             manager.createNotificationChannel(channel);
         }
-
-        // Acquire wake lock
-        PowerManager powerManager = (PowerManager) getSystemService(Context.POWER_SERVICE);
-        wakeLock = powerManager.newWakeLock(
-            PowerManager.PARTIAL_WAKE_LOCK,
-            "QuakeApp::EarthquakeDetectionWakeLock"
-        );
-        wakeLock.acquire();
-        Log.d(TAG, "Wake lock acquired");
     }
 
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
         Log.d(TAG, "Service started");
         startForeground(NOTIFICATION_ID, createNotification());
-        sensorManager.registerListener(this, accelerometer, SensorManager.SENSOR_DELAY_NORMAL);
-        Log.d(TAG, "Sensor listener registered");
+        // Start in batched mode, significant motion or elevated energy switches to full rate
+        sensorHandler.post(() -> {
+            sensorAcquisition.start();
+            applySamplingDecision();
+            Log.d(TAG, "Sensor listener registered, batching supported: " + sensorAcquisition.isBatchingSupported());
+        });
 
         
         return START_STICKY;
@@ -120,59 +226,67 @@ public class EarthquakeDetectionService extends Service implements SensorEventLi
     @Override
     public void onSensorChanged(SensorEvent event) {
         if (event.sensor.getType() == Sensor.TYPE_ACCELEROMETER) {
-            float x = event.values[0];
-            float y = event.values[1];
-            float z = event.values[2];
-
-            // Log raw sensor values
-            // Log.d(TAG, String.format("Sensor data: X=%.2f, Y=%.2f, Z=%.2f", x, y, z));
-
-            // Calculate instantaneous magnitude
-            float magnitude = (float) Math.sqrt(x * x + y * y + z * z);
-
-            // Add magnitude to the buffer and calculate average
-            magnitudeBuffer.add(magnitude);
-            if (magnitudeBuffer.size() > MAGNITUDE_BUFFER_SIZE) {
-                magnitudeBuffer.remove();
-            }
-
-            float averageMagnitude = 0;
-            for (float value : magnitudeBuffer) {
-                averageMagnitude += value;
-            }
-            if (!magnitudeBuffer.isEmpty()) { // Avoid division by zero
-                 averageMagnitude /= magnitudeBuffer.size();
-            }
-
-            // Log both instantaneous and averaged magnitude
-            Log.d(TAG, String.format("Instantaneous Magnitude: %.2f, Averaged Magnitude: %.2f", magnitude, averageMagnitude));
-
-            // --- Earthquake Detection Logic ---
-            long currentTime = System.currentTimeMillis();
-            if (averageMagnitude > EARTHQUAKE_THRESHOLD && (currentTime - lastDetectionTime > COOLDOWN_MILLIS)) {
-                Log.d(TAG, "Threshold exceeded and cooldown passed! Averaged Magnitude: " + averageMagnitude);
-                // A potential earthquake is detected!
-                // Update last detection time
-                lastDetectionTime = currentTime;
+            captureRecorder.append(event.timestamp, event.values[0], event.values[1], event.values[2]);
+            // Features are computed once here and shared with every pipeline listener
+            pipeline.process(event.timestamp, event.values[0], event.values[1], event.values[2]);
+        }
+    }
 
-                // Get last known location and create/save EarthquakeEvent
-                getLastLocationAndSaveEvent(currentTime, averageMagnitude);
+    private void applySettings(DetectionSettings settings) {
+        samplingGovernor.configure(
+            settings.getSamplingRate(),
+            settings.getSensitivityLevel(),
+            settings.getHoldOffSeconds()
+        );
+        sensorAcquisition.setSamplingRates(samplingGovernor.getLowRateHz(), samplingGovernor.getHighRateHz());
+        Log.d(TAG, "Detection settings applied: " + samplingGovernor.getLowRateHz() + "-"
+            + samplingGovernor.getHighRateHz() + " Hz, hold-off " + settings.getHoldOffSeconds() + " s");
+    }
 
-                // Show notification for the detected event
-                showEarthquakeAlert(averageMagnitude);
+    /**
+     * Low rate batched while quiet, high rate unbatched while the governor sees activity
+     */
+    private void applySamplingDecision() {
+        if (samplingGovernor.isHighRate()) {
+            holdBurstWakeLock();
+            sensorAcquisition.setMode(SensorAcquisition.Mode.FULL_RATE);
+        } else {
+            sensorAcquisition.setMode(SensorAcquisition.Mode.BATCHED);
+            wakeLockManager.release(burstWakeLock);
+            burstWakeLock = null;
+        }
+    }
 
-                
-            }
-            
+    /**
+     * Keep the CPU awake for unbatched high rate samples until the burst is over. The lock
+     * is timed, so it is extended halfway through its timeout for bursts that last longer.
+     */
+    private void holdBurstWakeLock() {
+        long now = SystemClock.elapsedRealtime();
+        if (burstWakeLock != null && burstWakeLock.isHeld() && now < burstWakeLockRenewAtMillis) {
+            return;
         }
+        if (burstWakeLock == null) {
+            burstWakeLock = wakeLockManager.acquire("DetectionBurst", WakeLockManager.DETECTION_BURST_TIMEOUT_MILLIS);
+        } else {
+            wakeLockManager.extend(burstWakeLock, WakeLockManager.DETECTION_BURST_TIMEOUT_MILLIS);
+        }
+        burstWakeLockRenewAtMillis = now + WakeLockManager.DETECTION_BURST_TIMEOUT_MILLIS / 2;
+    }
+
+    /**
+     * Pipeline fed by this service; bound clients subscribe to it for display
+     */
+    public DetectionPipeline getPipeline() {
+        return pipeline;
     }
 
-    private void getLastLocationAndSaveEvent(long timestamp, float magnitude) {
+    private void getLastLocationAndSaveEvent(long timestamp, float magnitude, float confidence) {
         // Check for location permissions
         if (ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) != PackageManager.PERMISSION_GRANTED && ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_COARSE_LOCATION) != PackageManager.PERMISSION_GRANTED) {
             // Permissions are not granted. Log an error and save event with default location.
             Log.e(TAG, "Location permissions not granted. Cannot get last known location.");
-            createAndSaveEarthquakeEvent(timestamp, magnitude, 0.0, 0.0, 0.0f, "Location Unavailable");
+            createAndSaveEarthquakeEvent(timestamp, magnitude, 0.0, 0.0, 0.0f, "Location Unavailable", confidence);
             return;
         }
 
@@ -208,11 +322,14 @@ public class EarthquakeDetectionService extends Service implements SensorEventLi
                                 }
                             } else {
                                 // Fallback to coordinates if no readable name is found
-                                locationName = "Lat: " + String.format("%.4f", latitude) + ", Lon: " + String.format("%.4f", longitude);
+                                locationName = "Lat: " + EventFormatter.formatDecimal(null, latitude, 4, null)
+                                    + ", Lon: " + EventFormatter.formatDecimal(null, longitude, 4, null);
                             }
                             Log.d(TAG, "Reverse geocoding successful: " + locationName);
                         } else {
-                             locationName = "Lat: " + String.format("%.4f", latitude) + ", Lon: " + String.format("%.4f", longitude); // Fallback to coordinates
+                             // Fallback to coordinates
+                             locationName = "Lat: " + EventFormatter.formatDecimal(null, latitude, 4, null)
+                                 + ", Lon: " + EventFormatter.formatDecimal(null, longitude, 4, null);
                              Log.w(TAG, "No addresses found for location.");
                         }
                     } catch (IOException e) {
@@ -226,31 +343,32 @@ public class EarthquakeDetectionService extends Service implements SensorEventLi
                 }
 
                 // Create and save EarthquakeEvent with obtained location
-                createAndSaveEarthquakeEvent(timestamp, magnitude, latitude, longitude, 0.0f, locationName);
+                createAndSaveEarthquakeEvent(timestamp, magnitude, latitude, longitude, 0.0f, locationName, confidence);
             })
             .addOnFailureListener(e -> {
                 // Handle failure to get location
                 Log.e(TAG, "Failed to get last known location", e);
-                createAndSaveEarthquakeEvent(timestamp, magnitude, 0.0, 0.0, 0.0f, "Location Error");
+                createAndSaveEarthquakeEvent(timestamp, magnitude, 0.0, 0.0, 0.0f, "Location Error", confidence);
             });
     }
 
-     private void createAndSaveEarthquakeEvent(long timestamp, float magnitude, double latitude, double longitude, float depth, String locationName) {
+     private void createAndSaveEarthquakeEvent(long timestamp, float magnitude, double latitude, double longitude, float depth, String locationName, float confidence) {
          EarthquakeEvent earthquakeEvent = new EarthquakeEvent(
-            timestamp, // Timestamp as long
             magnitude,
             latitude, // Real Latitude
             longitude, // Real Longitude
             depth, // Placeholder Depth
             locationName, // Location Name (placeholder or derived)
-            1.0f // Placeholder Confidence Level
+            new Date(timestamp),
+            confidence // Classifier confidence of the detection
         );
 
         // Save EarthquakeEvent to database in background
-        executorService.execute(() -> {
-            earthquakeRepository.insertEarthquakeEvent(earthquakeEvent);
-            Log.d(TAG, "EarthquakeEvent saved to database with location: " + locationName);
-        });
+        executorService.execute(() -> wakeLockManager.runWithWakeLock("DatabaseWrite",
+            WakeLockManager.DATABASE_WRITE_TIMEOUT_MILLIS, () -> {
+                database.earthquakeEventDao().insert(earthquakeEvent);
+                Log.d(TAG, "EarthquakeEvent saved to database with location: " + locationName);
+            }));
     }
 
     @Override
@@ -278,7 +396,7 @@ public class EarthquakeDetectionService extends Service implements SensorEventLi
     private void showEarthquakeAlert(float magnitude) {
         NotificationCompat.Builder builder = new NotificationCompat.Builder(this, CHANNEL_ID)
             .setContentTitle("Potential Earthquake Detected!")
-            .setContentText(String.format("Magnitude: %.1f", magnitude))
+            .setContentText(EventFormatter.formatDecimal("Magnitude: ", magnitude, 1, null))
             .setSmallIcon(R.drawable.ic_launcher_foreground)
             .setPriority(NotificationCompat.PRIORITY_HIGH);
 
@@ -290,17 +408,25 @@ public class EarthquakeDetectionService extends Service implements SensorEventLi
     @Override
     public void onDestroy() {
         super.onDestroy();
-        sensorManager.unregisterListener(this);
-        if (wakeLock != null && wakeLock.isHeld()) {
-            wakeLock.release();
-        }
-        executorService.shutdown();
+        detectionSettings.removeObserver(settingsObserver);
+        sensorHandler.post(() -> {
+            sensorAcquisition.stop();
+            pipeline.removeListener(detectionListener);
+            wakeLockManager.release(burstWakeLock);
+            burstWakeLock = null;
+            sensorDataWriter.close();
+            captureRecorder.close();
+            // The write executor is shared with the app and keeps running
+            compaction.cancel(false);
+        });
+        // Runs the pending stop before the looper exits
+        sensorThread.quitSafely();
         Log.d(TAG, "Service destroyed");
     }
 
     @Nullable
     @Override
     public IBinder onBind(Intent intent) {
-        return null;
+        return binder;
     }
 } 
\ No newline at end of file
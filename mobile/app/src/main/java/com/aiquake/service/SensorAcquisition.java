@@ -0,0 +1,212 @@
+package com.aiquake.service;
+
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorEventListener2;
+import android.hardware.SensorManager;
+import android.hardware.TriggerEvent;
+import android.hardware.TriggerEventListener;
+import android.os.Handler;
+import android.util.Log;
+
+/**
+ * Owns the accelerometer registration of the detection service.
+ *
+ * In {@link Mode#BATCHED} the accelerometer samples at a low rate into the
+ * hardware FIFO and is only delivered every few seconds, so the CPU can sleep
+ * between bursts. A one-shot significant motion sensor stays armed and reports
+ * motion to the owner, which can switch to {@link Mode#FULL_RATE}, where samples
+ * are delivered at the high rate as they are produced.
+ *
+ * The sensor service drops batched samples once their listener is
+ * unregistered, so leaving batched mode first flushes the FIFO and only
+ * re-registers when the flush completed. The samples from the start of the
+ * motion that woke the device up therefore still reach the listener.
+ * All methods must be called on the sensor handler's thread.
+ */
+public class SensorAcquisition {
+    private static final String TAG = "SensorAcquisition";
+
+    public static final int DEFAULT_LOW_RATE_HZ = 20;
+    public static final int DEFAULT_HIGH_RATE_HZ = 100;
+    public static final int MAX_REPORT_LATENCY_US = 10_000_000; // 10 seconds
+
+    public enum Mode {
+        BATCHED,
+        FULL_RATE
+    }
+
+    private final SensorManager sensorManager;
+    private final SensorEventListener listener;
+    private final Handler handler;
+    private final Sensor accelerometer;
+    private final Sensor significantMotion;
+    private final Runnable onSignificantMotion;
+    private int batchedSamplingPeriodUs = 1_000_000 / DEFAULT_LOW_RATE_HZ;
+    private int fullRateSamplingPeriodUs = 1_000_000 / DEFAULT_HIGH_RATE_HZ;
+    private Mode mode;
+    private int batchLatencyUs;
+    // Mode to register once the FIFO flush in progress completed, null when none is
+    private Mode pendingMode;
+    private boolean started = false;
+
+    // Forwards samples to the owner's listener and learns when a flush has been delivered
+    private final SensorEventListener2 sensorListener = new SensorEventListener2() {
+        @Override
+        public void onSensorChanged(SensorEvent event) {
+            listener.onSensorChanged(event);
+        }
+
+        @Override
+        public void onAccuracyChanged(Sensor sensor, int accuracy) {
+            listener.onAccuracyChanged(sensor, accuracy);
+        }
+
+        @Override
+        public void onFlushCompleted(Sensor sensor) {
+            Mode next = pendingMode;
+            pendingMode = null;
+            if (started && next != null) {
+                register(next);
+            }
+        }
+    };
+
+    private final TriggerEventListener significantMotionListener = new TriggerEventListener() {
+        @Override
+        public void onTrigger(TriggerEvent event) {
+            Log.d(TAG, "Significant motion detected");
+            handler.post(onSignificantMotion);
+        }
+    };
+
+    /**
+     * @param handler Handler sensor events are delivered on
+     * @param onSignificantMotion Run on the handler when significant motion is detected in batched mode
+     */
+    public SensorAcquisition(SensorManager sensorManager, SensorEventListener listener, Handler handler,
+                             Runnable onSignificantMotion) {
+        this.sensorManager = sensorManager;
+        this.listener = listener;
+        this.handler = handler;
+        this.onSignificantMotion = onSignificantMotion;
+
+        // Prefer the wake-up accelerometer: it wakes the CPU when its FIFO fills up
+        // instead of dropping the oldest samples while the device sleeps
+        Sensor wakeUpAccelerometer = sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER, true);
+        this.accelerometer = wakeUpAccelerometer != null
+            ? wakeUpAccelerometer
+            : sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
+        this.significantMotion = sensorManager.getDefaultSensor(Sensor.TYPE_SIGNIFICANT_MOTION);
+    }
+
+    public boolean isAccelerometerAvailable() {
+        return accelerometer != null;
+    }
+
+    /**
+     * True if the accelerometer has a hardware FIFO to batch samples into
+     */
+    public boolean isBatchingSupported() {
+        return accelerometer != null && accelerometer.getFifoMaxEventCount() > 0;
+    }
+
+    public void start() {
+        started = true;
+        mode = null;
+        setMode(Mode.BATCHED);
+    }
+
+    public void stop() {
+        started = false;
+        mode = null;
+        pendingMode = null;
+        sensorManager.unregisterListener(sensorListener);
+        if (significantMotion != null) {
+            sensorManager.cancelTriggerSensor(significantMotionListener, significantMotion);
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Change the rates of both modes, re-registering the sensor if it is running
+     */
+    public void setSamplingRates(int lowRateHz, int highRateHz) {
+        int batchedPeriodUs = 1_000_000 / lowRateHz;
+        int fullRatePeriodUs = 1_000_000 / highRateHz;
+        if (batchedPeriodUs == batchedSamplingPeriodUs && fullRatePeriodUs == fullRateSamplingPeriodUs) {
+            return;
+        }
+        batchedSamplingPeriodUs = batchedPeriodUs;
+        fullRateSamplingPeriodUs = fullRatePeriodUs;
+
+        if (pendingMode == null && started && mode != null) {
+            changeMode(mode);
+        }
+        // A pending flush registers with the new rates when it completes
+    }
+
+    public void setMode(Mode newMode) {
+        if (!started || accelerometer == null) {
+            return;
+        }
+        if (pendingMode != null) {
+            // Still draining the FIFO, register the latest request once it is empty
+            pendingMode = newMode;
+            return;
+        }
+        if (newMode != mode) {
+            changeMode(newMode);
+        }
+    }
+
+    private void changeMode(Mode newMode) {
+        if (mode == Mode.BATCHED && batchLatencyUs > 0) {
+            // Up to a full report latency of samples may be waiting in the FIFO
+            pendingMode = newMode;
+            if (sensorManager.flush(sensorListener)) {
+                return;
+            }
+            pendingMode = null;
+            Log.w(TAG, "Could not flush the accelerometer FIFO, batched samples are dropped");
+        }
+        register(newMode);
+    }
+
+    private void register(Mode newMode) {
+        sensorManager.unregisterListener(sensorListener);
+
+        if (newMode == Mode.BATCHED) {
+            batchLatencyUs = getBatchLatencyUs(batchedSamplingPeriodUs);
+            sensorManager.registerListener(sensorListener, accelerometer, batchedSamplingPeriodUs, batchLatencyUs,
+                handler);
+            if (significantMotion != null) {
+                sensorManager.requestTriggerSensor(significantMotionListener, significantMotion);
+            }
+            Log.d(TAG, "Batched acquisition, report latency " + batchLatencyUs + " us");
+        } else {
+            if (significantMotion != null) {
+                sensorManager.cancelTriggerSensor(significantMotionListener, significantMotion);
+            }
+            batchLatencyUs = 0;
+            sensorManager.registerListener(sensorListener, accelerometer, fullRateSamplingPeriodUs, 0, handler);
+            Log.d(TAG, "Full rate acquisition, period " + fullRateSamplingPeriodUs + " us");
+        }
+        mode = newMode;
+    }
+
+    /**
+     * Longest report latency the FIFO can hold without dropping samples
+     */
+    private int getBatchLatencyUs(int samplingPeriodUs) {
+        if (!isBatchingSupported()) {
+            return 0;
+        }
+        long fifoLatencyUs = (long) accelerometer.getFifoMaxEventCount() * samplingPeriodUs;
+        return (int) Math.min(MAX_REPORT_LATENCY_US, fifoLatencyUs);
+    }
+}
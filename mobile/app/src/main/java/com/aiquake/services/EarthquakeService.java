@@ -13,23 +13,24 @@ import androidx.core.app.NotificationCompat;
 import com.aiquake.R;
 import com.aiquake.MainActivity;
 import com.aiquake.models.Earthquake;
+import com.aiquake.usgs.UsgsGeoJsonParser;
+import com.aiquake.utils.EventFormatter;
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
 import com.android.volley.Request;
 import com.android.volley.RequestQueue;
 import com.android.volley.Response;
 import com.android.volley.VolleyError;
-import com.android.volley.toolbox.JsonObjectRequest;
+import com.android.volley.toolbox.HttpHeaderParser;
 import com.android.volley.toolbox.Volley;
+import com.google.gson.JsonParseException;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.Date;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
 
 public class EarthquakeService {
     private static final String TAG = "EarthquakeService";
@@ -67,33 +68,23 @@ public class EarthquakeService {
     }
 
     private void fetchEarthquakeData() {
-        JsonObjectRequest request = new JsonObjectRequest(
-            Request.Method.GET,
+        UsgsFeedRequest request = new UsgsFeedRequest(
             USGS_API_URL,
-            null,
-            new Response.Listener<JSONObject>() {
+            new Response.Listener<List<Earthquake>>() {
                 @Override
-                public void onResponse(JSONObject response) {
-                    try {
-                        JSONArray features = response.getJSONArray("features");
-                        if (features.length() > 0) {
-                            JSONObject latestQuake = features.getJSONObject(0);
-                            JSONObject properties = latestQuake.getJSONObject("properties");
-                            
-                            double magnitude = properties.getDouble("mag");
-                            String location = properties.getString("place");
-                            long time = properties.getLong("time");
-                            
-                            // Check if this is a new significant earthquake
-                            if (magnitude >= 4.0 && 
-                                (magnitude > lastMagnitude || !location.equals(lastLocation))) {
-                                showEarthquakeAlert(magnitude, location, new Date(time));
-                                lastMagnitude = magnitude;
-                                lastLocation = location;
-                            }
+                public void onResponse(List<Earthquake> earthquakes) {
+                    if (!earthquakes.isEmpty()) {
+                        Earthquake latestQuake = earthquakes.get(0);
+                        double magnitude = latestQuake.getMagnitude();
+                        String location = latestQuake.getLocation();
+
+                        // Check if this is a new significant earthquake
+                        if (magnitude >= 4.0 &&
+                            (magnitude > lastMagnitude || !Objects.equals(location, lastLocation))) {
+                            showEarthquakeAlert(magnitude, location, latestQuake.getTimestamp());
+                            lastMagnitude = magnitude;
+                            lastLocation = location;
                         }
-                    } catch (JSONException e) {
-                        Log.e(TAG, "Error parsing earthquake data", e);
                     }
                 }
             },
@@ -118,8 +109,8 @@ public class EarthquakeService {
         NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
             .setSmallIcon(R.drawable.ic_notification)
             .setContentTitle("Earthquake Alert!")
-            .setContentText(String.format(Locale.getDefault(), 
-                "Magnitude %.1f earthquake detected near %s", magnitude, location))
+            .setContentText("Magnitude " + EventFormatter.formatMagnitude(magnitude)
+                + " earthquake detected near " + location)
             .setPriority(NotificationCompat.PRIORITY_HIGH)
             .setAutoCancel(true)
             .setContentIntent(pendingIntent);
@@ -127,35 +118,41 @@ public class EarthquakeService {
         notificationManager.notify(NOTIFICATION_ID, builder.build());
     }
 
-    public List<Earthquake> parseEarthquakeData(JSONObject response) throws JSONException {
-        List<Earthquake> earthquakes = new ArrayList<>();
-        JSONArray features = response.getJSONArray("features");
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.getDefault());
+    /**
+     * Parse a USGS feed response body. The body is streamed through the parser,
+     * no String or JSON tree of the whole document is built.
+     */
+    public static List<Earthquake> parseEarthquakeData(NetworkResponse response) throws IOException {
+        String charset = HttpHeaderParser.parseCharset(response.headers, "UTF-8");
+        try (InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(response.data), charset)) {
+            return UsgsGeoJsonParser.parse(reader);
+        }
+    }
+
+    /**
+     * Volley request for a USGS feed, parsed on the network thread
+     */
+    private static class UsgsFeedRequest extends Request<List<Earthquake>> {
+        private final Response.Listener<List<Earthquake>> listener;
 
-        for (int i = 0; i < features.length(); i++) {
-            JSONObject feature = features.getJSONObject(i);
-            JSONObject properties = feature.getJSONObject("properties");
-            JSONObject geometry = feature.getJSONObject("geometry");
-            JSONArray coordinates = geometry.getJSONArray("coordinates");
+        UsgsFeedRequest(String url, Response.Listener<List<Earthquake>> listener,
+                        Response.ErrorListener errorListener) {
+            super(Request.Method.GET, url, errorListener);
+            this.listener = listener;
+        }
 
+        @Override
+        protected Response<List<Earthquake>> parseNetworkResponse(NetworkResponse response) {
             try {
-                Date timestamp = dateFormat.parse(properties.getString("time"));
-                Earthquake earthquake = new Earthquake(
-                    properties.getString("id"),
-                    properties.getDouble("mag"),
-                    coordinates.getDouble(1), // latitude
-                    coordinates.getDouble(0), // longitude
-                    properties.getString("place"),
-                    timestamp,
-                    coordinates.getDouble(2), // depth
-                    properties.getString("source")
-                );
-                earthquakes.add(earthquake);
-            } catch (ParseException e) {
-                Log.e(TAG, "Error parsing date", e);
+                return Response.success(parseEarthquakeData(response), HttpHeaderParser.parseCacheHeaders(response));
+            } catch (JsonParseException | IOException e) {
+                return Response.error(new ParseError(e));
             }
         }
 
-        return earthquakes;
+        @Override
+        protected void deliverResponse(List<Earthquake> earthquakes) {
+            listener.onResponse(earthquakes);
+        }
     }
-} 
\ No newline at end of file
+}
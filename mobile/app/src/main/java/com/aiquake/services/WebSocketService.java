@@ -14,6 +14,7 @@ import android.util.Log;
 import androidx.core.app.NotificationCompat;
 import com.aiquake.MainActivity;
 import com.aiquake.R;
+import com.aiquake.utils.EventFormatter;
 import org.json.JSONException;
 import org.json.JSONObject;
 import okhttp3.OkHttpClient;
@@ -225,9 +226,8 @@ public class WebSocketService extends Service {
         Log.d(TAG, "Handling earthquake notification with data: " + data.toString());
         
         String title = "Earthquake Alert!";
-        String message = String.format("Magnitude %.1f earthquake detected %dkm from your location",
-            data.getDouble("magnitude"),
-            data.getInt("distance"));
+        String message = "Magnitude " + EventFormatter.formatMagnitude(data.getDouble("magnitude"))
+            + " earthquake detected " + data.getInt("distance") + "km from your location";
 
         // Create intent for notification
         Intent intent = new Intent(this, MainActivity.class);
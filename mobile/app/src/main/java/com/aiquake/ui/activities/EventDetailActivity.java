@@ -8,6 +8,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import com.aiquake.R;
 import com.aiquake.models.EarthquakeEvent;
+import com.aiquake.utils.EventFormatter;
 import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.OnMapReadyCallback;
@@ -16,8 +17,6 @@ import com.google.android.gms.maps.model.CircleOptions;
 import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.MarkerOptions;
 import com.google.android.gms.maps.model.BitmapDescriptorFactory;
-import java.text.SimpleDateFormat;
-import java.util.Locale;
 
 public class EventDetailActivity extends AppCompatActivity implements OnMapReadyCallback {
     private GoogleMap mMap;
@@ -66,19 +65,12 @@ public class EventDetailActivity extends AppCompatActivity implements OnMapReady
 //        TextView depthText = findViewById(R.id.depth_text);
 //        TextView confidenceText = findViewById(R.id.confidence_text);
 
-        magnitudeText.setText(String.format(Locale.getDefault(), "%.1f", event.getMagnitude()));
-        timeText.setText(new SimpleDateFormat("MMM dd, yyyy HH:mm:ss", Locale.getDefault())
-                .format(event.getTimestamp()));
+        magnitudeText.setText(EventFormatter.formatMagnitude(event.getMagnitude()));
+        timeText.setText(EventFormatter.formatTime(event.getTimestamp()));
         locationText.setText(event.getLocation());
         
         // Format coordinates with N/S and E/W indicators
-        String lat = String.format(Locale.getDefault(), "%.4f°%s", 
-            Math.abs(event.getLatitude()), 
-            event.getLatitude() >= 0 ? "N" : "S");
-        String lon = String.format(Locale.getDefault(), "%.4f°%s", 
-            Math.abs(event.getLongitude()), 
-            event.getLongitude() >= 0 ? "E" : "W");
-        coordinatesText.setText(String.format("%s, %s", lat, lon));
+        coordinatesText.setText(EventFormatter.formatCoordinates(event.getLatitude(), event.getLongitude()));
         
 //        depthText.setText(String.format(Locale.getDefault(), "%.1f km", event.getDepth()));
 //        confidenceText.setText(String.format(Locale.getDefault(), "%.1f%%", event.getConfidence() * 100));
@@ -99,7 +91,7 @@ public class EventDetailActivity extends AppCompatActivity implements OnMapReady
         float markerColor = getMarkerColor(event.getMagnitude());
         mMap.addMarker(new MarkerOptions()
                 .position(eventLocation)
-                .title(String.format(Locale.getDefault(), "Magnitude %.1f", event.getMagnitude()))
+                .title(EventFormatter.formatDecimal("Magnitude ", event.getMagnitude(), 1, null))
                 .snippet(event.getLocation())
                 .icon(BitmapDescriptorFactory.defaultMarker(markerColor)));
 
@@ -6,22 +6,40 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.aiquake.R;
 import com.aiquake.models.Earthquake;
+import com.aiquake.utils.EventFormatter;
 
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
 
 public class EarthquakeAdapter extends RecyclerView.Adapter<EarthquakeAdapter.EarthquakeViewHolder> {
-    private List<Earthquake> earthquakes;
-    private SimpleDateFormat dateFormat;
+    // Feed earthquakes are matched by their feed id and rebound only when a shown field changed
+    private static final DiffUtil.ItemCallback<Earthquake> DIFF_CALLBACK = new DiffUtil.ItemCallback<Earthquake>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Earthquake oldEarthquake, @NonNull Earthquake newEarthquake) {
+            return stableId(oldEarthquake) == stableId(newEarthquake);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Earthquake oldEarthquake, @NonNull Earthquake newEarthquake) {
+            return oldEarthquake.getMagnitude() == newEarthquake.getMagnitude()
+                && oldEarthquake.getDepth() == newEarthquake.getDepth()
+                && Objects.equals(oldEarthquake.getLocation(), newEarthquake.getLocation())
+                && Objects.equals(oldEarthquake.getTimestamp(), newEarthquake.getTimestamp());
+        }
+    };
+
+    private final AsyncListDiffer<Earthquake> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
 
     public EarthquakeAdapter(List<Earthquake> earthquakes) {
-        this.earthquakes = earthquakes;
-        this.dateFormat = new SimpleDateFormat("MMM dd, yyyy HH:mm", Locale.getDefault());
+        setHasStableIds(true);
+        updateEarthquakes(earthquakes);
     }
 
     @NonNull
@@ -34,18 +52,40 @@ public class EarthquakeAdapter extends RecyclerView.Adapter<EarthquakeAdapter.Ea
 
     @Override
     public void onBindViewHolder(@NonNull EarthquakeViewHolder holder, int position) {
-        Earthquake earthquake = earthquakes.get(position);
+        Earthquake earthquake = differ.getCurrentList().get(position);
         holder.bind(earthquake);
     }
 
     @Override
     public int getItemCount() {
-        return earthquakes.size();
+        return differ.getCurrentList().size();
     }
 
+    @Override
+    public long getItemId(int position) {
+        return stableId(differ.getCurrentList().get(position));
+    }
+
+    /**
+     * Show a new list, diffed against the current one on a background thread.
+     * The earthquakes must not be modified afterwards.
+     */
     public void updateEarthquakes(List<Earthquake> newEarthquakes) {
-        this.earthquakes = newEarthquakes;
-        notifyDataSetChanged();
+        differ.submitList(newEarthquakes != null ? new ArrayList<>(newEarthquakes) : new ArrayList<>());
+    }
+
+    // 64-bit FNV-1a of the feed id: String.hashCode() collides too easily for stable ids
+    private static long stableId(Earthquake earthquake) {
+        String id = earthquake.getId();
+        if (id == null) {
+            return earthquake.getTimestamp() != null ? earthquake.getTimestamp().getTime() : 0;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
     }
 
     class EarthquakeViewHolder extends RecyclerView.ViewHolder {
@@ -63,10 +103,10 @@ public class EarthquakeAdapter extends RecyclerView.Adapter<EarthquakeAdapter.Ea
         }
 
         public void bind(Earthquake earthquake) {
-            magnitudeText.setText(String.format(Locale.getDefault(), "%.1f", earthquake.getMagnitude()));
+            magnitudeText.setText(EventFormatter.formatMagnitude(earthquake.getMagnitude()));
             locationText.setText(earthquake.getLocation());
-            timeText.setText(dateFormat.format(earthquake.getTimestamp()));
-            depthText.setText(String.format(Locale.getDefault(), "Depth: %.1f km", earthquake.getDepth()));
+            timeText.setText(EventFormatter.formatTimeToMinute(earthquake.getTimestamp()));
+            depthText.setText("Depth: " + EventFormatter.formatDepth(earthquake.getDepth()));
         }
     }
 } 
\ No newline at end of file
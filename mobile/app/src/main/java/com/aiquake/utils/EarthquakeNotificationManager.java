@@ -69,13 +69,13 @@ public class EarthquakeNotificationManager {
         NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
             .setSmallIcon(R.drawable.ic_notification)
             .setContentTitle("Earthquake Detected!")
-            .setContentText(String.format("Magnitude %.1f at %s", event.getMagnitude(), event.getLocation()))
+            .setContentText("Magnitude " + EventFormatter.formatMagnitude(event.getMagnitude())
+                + " at " + event.getLocation())
             .setStyle(new NotificationCompat.BigTextStyle()
-                .bigText(String.format("Magnitude %.1f earthquake detected at %s\nDepth: %.1f km\nConfidence: %.0f%%",
-                    event.getMagnitude(),
-                    event.getLocation(),
-                    event.getDepth(),
-                    event.getConfidence() * 100)))
+                .bigText("Magnitude " + EventFormatter.formatMagnitude(event.getMagnitude())
+                    + " earthquake detected at " + event.getLocation()
+                    + "\nDepth: " + EventFormatter.formatDepth(event.getDepth())
+                    + "\nConfidence: " + EventFormatter.formatDecimal(null, event.getConfidence() * 100, 0, "%")))
             .setPriority(NotificationCompat.PRIORITY_HIGH)
             .setAutoCancel(true)
             .setContentIntent(pendingIntent);
@@ -0,0 +1,189 @@
+package com.aiquake.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.text.FieldPosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Text for event times, magnitudes, depths and coordinates, shared by the
+ * lists, the detail screen and the notifications.
+ *
+ * Each thread keeps its own date formats, digit symbols and buffers for the
+ * current locale and time zone, rebuilt only when either changes, so binding
+ * a row allocates little more than the returned strings. Numbers are written
+ * digit by digit with the locale's symbols instead of going through
+ * String.format, which parses its pattern on every call. They round like
+ * String.format, half up on the shortest decimal form of the double, so
+ * 131.045 gives "131.05" even though the double is slightly below it.
+ */
+public final class EventFormatter {
+    private static final String TIME_PATTERN = "MMM dd, yyyy HH:mm:ss";
+    private static final String TIME_TO_MINUTE_PATTERN = "MMM dd, yyyy HH:mm";
+
+    private static final int MAX_DECIMALS = 6;
+    // Largest scaled value whose fraction a double still holds to 1/8
+    private static final double MAX_SCALED_VALUE = 1e15;
+    // Scaled values this close to a half, relative to their size, may be decimal ties
+    private static final double TIE_TOLERANCE = 1e-9;
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private static final ThreadLocal<Formats> FORMATS = new ThreadLocal<>();
+
+    private EventFormatter() {
+    }
+
+    /**
+     * Magnitude with one decimal, e.g. "4.7"
+     */
+    public static String formatMagnitude(double magnitude) {
+        return formatDecimal(null, magnitude, 1, null);
+    }
+
+    /**
+     * Depth in kilometres, e.g. "10.2 km"
+     */
+    public static String formatDepth(double depthKm) {
+        return formatDecimal(null, depthKm, 1, " km");
+    }
+
+    /**
+     * Date and time to the second, e.g. "Mar 04, 2024 13:05:09"
+     */
+    public static String formatTime(Date time) {
+        Formats formats = formats();
+        return formats.format(formats.time, time);
+    }
+
+    /**
+     * Date and time to the minute, e.g. "Mar 04, 2024 13:05"
+     */
+    public static String formatTimeToMinute(Date time) {
+        Formats formats = formats();
+        return formats.format(formats.timeToMinute, time);
+    }
+
+    /**
+     * Latitude and longitude with four decimals and hemispheres, e.g. "35.6895°N, 139.6917°E"
+     */
+    public static String formatCoordinates(double latitude, double longitude) {
+        Formats formats = formats();
+        StringBuilder text = formats.text;
+        text.setLength(0);
+        formats.appendFixed(Math.abs(latitude), 4);
+        text.append(latitude >= 0 ? "°N, " : "°S, ");
+        formats.appendFixed(Math.abs(longitude), 4);
+        text.append(longitude >= 0 ? "°E" : "°W");
+        return text.toString();
+    }
+
+    /**
+     * A number with a fixed count of decimals, like "%.nf", between an optional prefix and suffix
+     * @param decimals 0 to 6
+     */
+    public static String formatDecimal(String prefix, double value, int decimals, String suffix) {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Unsupported decimal count: " + decimals);
+        }
+        Formats formats = formats();
+        StringBuilder text = formats.text;
+        text.setLength(0);
+        if (prefix != null) {
+            text.append(prefix);
+        }
+        formats.appendFixed(value, decimals);
+        if (suffix != null) {
+            text.append(suffix);
+        }
+        return text.toString();
+    }
+
+    private static Formats formats() {
+        Locale locale = Locale.getDefault();
+        TimeZone timeZone = TimeZone.getDefault();
+        Formats formats = FORMATS.get();
+        if (formats == null || !formats.locale.equals(locale) || !formats.timeZoneId.equals(timeZone.getID())) {
+            formats = new Formats(locale, timeZone);
+            FORMATS.set(formats);
+        }
+        return formats;
+    }
+
+    /**
+     * Formatters and buffers of one thread, for one locale and time zone
+     */
+    private static final class Formats {
+        final Locale locale;
+        final String timeZoneId;
+        final SimpleDateFormat time;
+        final SimpleDateFormat timeToMinute;
+        final char zeroDigit;
+        final char decimalSeparator;
+
+        final StringBuilder text = new StringBuilder(32);
+        final StringBuffer dateText = new StringBuffer(32);
+        final FieldPosition fieldPosition = new FieldPosition(0);
+        final char[] digits = new char[20];
+
+        Formats(Locale locale, TimeZone timeZone) {
+            this.locale = locale;
+            this.timeZoneId = timeZone.getID();
+            this.time = new SimpleDateFormat(TIME_PATTERN, locale);
+            this.timeToMinute = new SimpleDateFormat(TIME_TO_MINUTE_PATTERN, locale);
+            time.setTimeZone(timeZone);
+            timeToMinute.setTimeZone(timeZone);
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            this.zeroDigit = symbols.getZeroDigit();
+            this.decimalSeparator = symbols.getDecimalSeparator();
+        }
+
+        String format(SimpleDateFormat format, Date date) {
+            dateText.setLength(0);
+            return format.format(date, dateText, fieldPosition).toString();
+        }
+
+        void appendFixed(double value, int decimals) {
+            long scale = POWERS_OF_TEN[decimals];
+            double scaledValue = Math.abs(value) * scale;
+            if (Double.isNaN(value) || !(scaledValue < MAX_SCALED_VALUE)) {
+                // Out of the range worth a fast path, never the case for event data
+                text.append(String.format(locale, "%." + decimals + "f", value));
+                return;
+            }
+            long scaled = Math.round(scaledValue);
+            if (Math.abs(scaledValue - Math.floor(scaledValue) - 0.5) <= scaledValue * TIE_TOLERANCE) {
+                // The binary product may sit just below or above a decimal tie,
+                // round the shortest decimal form of the value instead
+                scaled = BigDecimal.valueOf(Math.abs(value))
+                    .setScale(decimals, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValue();
+            }
+            if (Double.doubleToRawLongBits(value) < 0) {
+                // Sign bit, so -0.0 and values rounding to zero keep it. String.format
+                // writes an ASCII hyphen whatever the locale's minus sign
+                text.append('-');
+            }
+            appendDigits(scaled / scale, 1);
+            if (decimals > 0) {
+                text.append(decimalSeparator);
+                appendDigits(scaled % scale, decimals);
+            }
+        }
+
+        private void appendDigits(long value, int minDigits) {
+            int count = 0;
+            do {
+                digits[count++] = (char) (zeroDigit + value % 10);
+                value /= 10;
+            } while (value != 0 || count < minDigits);
+            while (count > 0) {
+                text.append(digits[--count]);
+            }
+        }
+    }
+}
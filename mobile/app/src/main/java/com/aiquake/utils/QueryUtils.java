@@ -1,21 +1,15 @@
 package com.aiquake.utils;
 
-import android.text.TextUtils;
 import android.util.Log;
 import com.aiquake.models.EarthquakeEvent;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import java.io.BufferedReader;
+import com.aiquake.usgs.UsgsGeoJsonParser;
+import com.google.gson.JsonParseException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 public final class QueryUtils {
@@ -34,17 +28,14 @@ public final class QueryUtils {
         // Create URL object
         URL url = createUrl(requestUrl);
 
-        // Perform HTTP request to the URL and receive a JSON response back
-        String jsonResponse = null;
+        // Perform HTTP request to the URL and parse the JSON response as it arrives
+        List<EarthquakeEvent> earthquakes = null;
         try {
-            jsonResponse = makeHttpRequest(url);
+            earthquakes = makeHttpRequest(url);
         } catch (IOException e) {
             Log.e(LOG_TAG, "Error closing input stream", e);
         }
 
-        // Extract relevant fields from the JSON response and create a list of {@link EarthquakeEvent}s
-        List<EarthquakeEvent> earthquakes = extractFeatureFromJson(jsonResponse);
-
         // Return the list of {@link EarthquakeEvent}s
         return earthquakes;
     }
@@ -63,16 +54,16 @@ public final class QueryUtils {
     }
 
     /**
-     * Make an HTTP request to the given URL and return a String as the response.
+     * Make an HTTP request to the given URL and return the events of the response,
+     * or null if the request failed.
      */
-    private static String makeHttpRequest(URL url) throws IOException {
-        String jsonResponse = "";
-
+    private static List<EarthquakeEvent> makeHttpRequest(URL url) throws IOException {
         // If the URL is null, then return early.
         if (url == null) {
-            return jsonResponse;
+            return null;
         }
 
+        List<EarthquakeEvent> earthquakes = null;
         HttpURLConnection urlConnection = null;
         InputStream inputStream = null;
         try {
@@ -82,10 +73,10 @@ public final class QueryUtils {
             urlConnection.setRequestMethod("GET");
             urlConnection.connect();
 
-            // If the request was successful (response code 200), read the input stream and parse the response.
+            // If the request was successful (response code 200), parse the input stream.
             if (urlConnection.getResponseCode() == 200) {
                 inputStream = urlConnection.getInputStream();
-                jsonResponse = readFromStream(inputStream);
+                earthquakes = extractFeaturesFromStream(inputStream);
             } else {
                 Log.e(LOG_TAG, "Error response code: " + urlConnection.getResponseCode());
             }
@@ -100,96 +91,37 @@ public final class QueryUtils {
                 inputStream.close();
             }
         }
-        return jsonResponse;
-    }
-
-    /**
-     * Convert the {@link InputStream} into a String which contains the whole JSON response from the server.
-     */
-    private static String readFromStream(InputStream inputStream) throws IOException {
-        StringBuilder output = new StringBuilder();
-        if (inputStream != null) {
-            InputStreamReader inputStreamReader = new InputStreamReader(inputStream, Charset.forName("UTF-8"));
-            BufferedReader reader = new BufferedReader(inputStreamReader);
-            String line = reader.readLine();
-            while (line != null) {
-                output.append(line);
-                line = reader.readLine();
-            }
-        }
-        return output.toString();
+        return earthquakes;
     }
 
     /**
-     * Return a list of {@link EarthquakeEvent} objects that has been built up from
-     * parsing the JSON response.
+     * Return a list of {@link EarthquakeEvent} objects read from the JSON response. The
+     * response is parsed as it is downloaded, it is never held in memory as a whole.
      */
-    private static List<EarthquakeEvent> extractFeatureFromJson(String earthquakeJSON) {
-        // If the JSON string is empty or null, then return early.
-        if (TextUtils.isEmpty(earthquakeJSON)) {
-            return null;
-        }
-
+    private static List<EarthquakeEvent> extractFeaturesFromStream(InputStream inputStream) throws IOException {
         // Create an empty ArrayList that we can start adding earthquakes to
         List<EarthquakeEvent> earthquakes = new ArrayList<>();
 
-        // Try to parse the JSON response string. If there's a problem with the way the JSON is formatted, a JSONException exception object will be thrown.
+        // Parsing is shared with the rest of the code base through quake-core. If there's a problem
+        // with the way the JSON is formatted, a JsonParseException will be thrown.
         try {
-            // Create a JSONObject from the JSON response string
-            JSONObject baseJsonResponse = new JSONObject(earthquakeJSON);
-
-            // Extract the "features" JSONArray
-            JSONArray earthquakeFeatureArray = baseJsonResponse.getJSONArray("features");
-
-            // For each earthquake in the earthquakeFeatureArray, create an {@link EarthquakeEvent} object
-            for (int i = 0; i < earthquakeFeatureArray.length(); i++) {
-
-                // Get a single earthquake at position i
-                JSONObject currentEarthquake = earthquakeFeatureArray.getJSONObject(i);
-
-                // For a given earthquake, extract the JSONObject associated with the key called "properties".
-                JSONObject properties = currentEarthquake.getJSONObject("properties");
-
-                // Extract the value for the key called "mag"
-                double magnitude = properties.getDouble("mag");
-
-                // Extract the value for the key called "place"
-                String location = properties.getString("place");
-
-                // Extract the value for the key called "time"
-                long time = properties.getLong("time");
-
-                 // Extract the JSONObject associated with the key called "geometry".
-                JSONObject geometry = currentEarthquake.getJSONObject("geometry");
-                // Extract the JSONArray associated with the key called "coordinates"
-                JSONArray coordinates = geometry.getJSONArray("coordinates");
-                // Extract longitude, latitude, and depth from the JSONArray
-                double longitude = coordinates.getDouble(0);
-                double latitude = coordinates.getDouble(1);
-                double depth = coordinates.getDouble(2);
-
-                // Create a new {@link EarthquakeEvent} object with the magnitude, location, time, and URL from the JSON response.
-                EarthquakeEvent earthquake = new EarthquakeEvent(
-                    magnitude,
-                    latitude,
-                    longitude,
-                    depth,
-                    location,
-                    new Date(time),
-                    0.0  // Default confidence level
-                );
-
-                // Add the new {@link EarthquakeEvent} to the list of earthquakes.
-                earthquakes.add(earthquake);
-            }
-
-        } catch (JSONException e) {
-            // If an error is thrown when executing any of the above statements in the "try" block, catch the exception here, so the app doesn't crash. Print a log message
+            UsgsGeoJsonParser.parse(inputStream, earthquake -> earthquakes.add(new EarthquakeEvent(
+                earthquake.getMagnitude(),
+                earthquake.getLatitude(),
+                earthquake.getLongitude(),
+                earthquake.getDepth(),
+                earthquake.getLocation(),
+                earthquake.getTimestamp(),
+                0.0  // Default confidence level
+            )));
+        } catch (JsonParseException e) {
+            // Catch the exception here, so the app doesn't crash. Print a log message
             // with the message from the exception.
             Log.e("QueryUtils", "Problem parsing the earthquake JSON results", e);
+            earthquakes.clear();
         }
 
         // Return the list of earthquakes
         return earthquakes;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package com.aiquake.utils;
+
+import android.content.Context;
+import android.os.PowerManager;
+
+/**
+ * Hands out short, timed partial wake locks for work that must finish while the
+ * screen is off: a detection burst, a database write or an upload.
+ *
+ * Every lock has a timeout so a lost release can never keep the CPU awake, and
+ * each one is tagged with its reason so battery stats show what held the device.
+ * Outside of these windows the detection service relies on sensor batching and
+ * wake-up sensors to get the CPU back.
+ */
+public class WakeLockManager {
+    private static final String TAG_PREFIX = "QuakeApp::";
+
+    public static final long DETECTION_BURST_TIMEOUT_MILLIS = 5 * 60 * 1000; // 5 minutes
+    public static final long DATABASE_WRITE_TIMEOUT_MILLIS = 10 * 1000; // 10 seconds
+    public static final long UPLOAD_TIMEOUT_MILLIS = 30 * 1000; // 30 seconds
+    public static final long COMPACTION_TIMEOUT_MILLIS = 60 * 1000; // 1 minute
+
+    private static volatile WakeLockManager INSTANCE;
+
+    private final PowerManager powerManager;
+
+    private WakeLockManager(Context context) {
+        powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+    }
+
+    public static WakeLockManager getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (WakeLockManager.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new WakeLockManager(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Acquire a new partial wake lock that is released automatically after the timeout
+     * @param reason Short name of the work, appended to the wake lock tag
+     */
+    public PowerManager.WakeLock acquire(String reason, long timeoutMillis) {
+        PowerManager.WakeLock wakeLock = powerManager.newWakeLock(
+            PowerManager.PARTIAL_WAKE_LOCK,
+            TAG_PREFIX + reason
+        );
+        // Not reference counted, so an explicit release after the timeout is harmless
+        wakeLock.setReferenceCounted(false);
+        wakeLock.acquire(timeoutMillis);
+        return wakeLock;
+    }
+
+    /**
+     * Restart the timeout of a lock returned by {@link #acquire(String, long)}, taking it again if it expired
+     */
+    public void extend(PowerManager.WakeLock wakeLock, long timeoutMillis) {
+        // Not reference counted: acquiring a held lock only replaces its timeout
+        wakeLock.acquire(timeoutMillis);
+    }
+
+    /**
+     * Release a lock returned by {@link #acquire(String, long)} if it has not timed out yet
+     */
+    public void release(PowerManager.WakeLock wakeLock) {
+        if (wakeLock != null && wakeLock.isHeld()) {
+            wakeLock.release();
+        }
+    }
+
+    /**
+     * Run the task on the calling thread while holding a timed wake lock
+     */
+    public void runWithWakeLock(String reason, long timeoutMillis, Runnable task) {
+        PowerManager.WakeLock wakeLock = acquire(reason, timeoutMillis);
+        try {
+            task.run();
+        } finally {
+            release(wakeLock);
+        }
+    }
+}
@@ -4,23 +4,35 @@ import android.app.Application;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import com.aiquake.models.EarthquakeEvent;
+import com.aiquake.data.EarthquakeEventPager;
 import com.aiquake.data.EarthquakeRepository;
 import java.util.List;
 
 public class EarthquakeViewModel extends AndroidViewModel {
     private final EarthquakeRepository repository;
     private final LiveData<List<EarthquakeEvent>> allEarthquakeEvents;
+    private final EarthquakeEventPager recentEventsPager;
 
     public EarthquakeViewModel(Application application) {
         super(application);
         repository = new EarthquakeRepository(application);
         allEarthquakeEvents = repository.getAllEarthquakeEvents();
+        recentEventsPager = repository.createPager();
     }
 
     public LiveData<List<EarthquakeEvent>> getAllEarthquakeEvents() {
         return allEarthquakeEvents;
     }
 
+    // Only the pages scrolled to so far are loaded, unlike getAllEarthquakeEvents
+    public LiveData<List<EarthquakeEvent>> getRecentEarthquakeEvents() {
+        return recentEventsPager.getEvents();
+    }
+
+    public void loadMoreRecentEarthquakeEvents() {
+        recentEventsPager.loadNextPage();
+    }
+
     public void insert(EarthquakeEvent earthquakeEvent) {
         repository.insert(earthquakeEvent);
     }
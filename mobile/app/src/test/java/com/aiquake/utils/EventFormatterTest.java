@@ -0,0 +1,111 @@
+package com.aiquake.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+public class EventFormatterTest {
+    private Locale defaultLocale;
+    private TimeZone defaultTimeZone;
+
+    @Before
+    public void setUp() {
+        defaultLocale = Locale.getDefault();
+        defaultTimeZone = TimeZone.getDefault();
+        Locale.setDefault(Locale.US);
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+        TimeZone.setDefault(defaultTimeZone);
+    }
+
+    @Test
+    public void decimalTiesRoundLikeStringFormat() {
+        // Each double is slightly below or above the decimal it prints as
+        double[] ties = {131.045, -263.085, 0.125, 2.675, 1.005, 0.05, -0.15, 1.4999999999999999, 12.345};
+        for (double value : ties) {
+            for (int decimals = 0; decimals <= 3; decimals++) {
+                assertFormatted(Locale.US, value, decimals);
+            }
+        }
+    }
+
+    @Test
+    public void randomValuesMatchStringFormat() {
+        Random random = new Random(24);
+        for (int i = 0; i < 200_000; i++) {
+            int decimals = random.nextInt(7);
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(9));
+            if (i % 2 == 0) {
+                // An exact decimal tie at this precision
+                double scale = Math.pow(10, decimals);
+                value = Double.parseDouble(String.format(Locale.US, "%." + (decimals + 1) + "f",
+                    (Math.floor(value * scale) + 0.5) / scale));
+            }
+            assertFormatted(Locale.US, value, decimals);
+        }
+    }
+
+    @Test
+    public void signsAndSpecialValuesMatchStringFormat() {
+        double[] values = {0.0, -0.0, -0.04, -0.05, 1e12, -3.5e14, Double.NaN, Double.POSITIVE_INFINITY};
+        for (double value : values) {
+            assertFormatted(Locale.US, value, 1);
+        }
+    }
+
+    @Test
+    public void usesTheSymbolsOfTheDefaultLocale() {
+        Locale[] locales = {Locale.GERMANY, Locale.FRANCE, new Locale("sv", "SE"), new Locale("fa", "IR"),
+            new Locale("ar", "EG")};
+        Random random = new Random(7);
+        for (Locale locale : locales) {
+            Locale.setDefault(locale);
+            for (int i = 0; i < 1000; i++) {
+                assertFormatted(locale, (random.nextDouble() - 0.5) * 2000, 1 + random.nextInt(4));
+            }
+        }
+    }
+
+    @Test
+    public void formatsEventFields() {
+        assertEquals("4.7", EventFormatter.formatMagnitude(4.65));
+        assertEquals("10.3 km", EventFormatter.formatDepth(10.25));
+        assertEquals("35.6895°N, 139.6917°E", EventFormatter.formatCoordinates(35.6895, 139.6917));
+        assertEquals("33.4489°S, 70.6693°W", EventFormatter.formatCoordinates(-33.4489, -70.6693));
+        assertEquals("Depth: 7.0 km", EventFormatter.formatDecimal("Depth: ", 7, 1, " km"));
+    }
+
+    @Test
+    public void formatsTimesInTheDefaultTimeZone() {
+        Date time = new Date(1709557509000L); // 2024-03-04 13:05:09 UTC
+        assertEquals("Mar 04, 2024 13:05:09", EventFormatter.formatTime(time));
+        assertEquals("Mar 04, 2024 13:05", EventFormatter.formatTimeToMinute(time));
+
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+        SimpleDateFormat expected = new SimpleDateFormat("MMM dd, yyyy HH:mm:ss", Locale.US);
+        assertEquals(expected.format(time), EventFormatter.formatTime(time));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnsupportedDecimalCounts() {
+        EventFormatter.formatDecimal(null, 1.0, 7, null);
+    }
+
+    private static void assertFormatted(Locale locale, double value, int decimals) {
+        assertEquals(value + " to " + decimals + " decimals",
+            String.format(locale, "%." + decimals + "f", value),
+            EventFormatter.formatDecimal(null, value, decimals, null));
+    }
+}
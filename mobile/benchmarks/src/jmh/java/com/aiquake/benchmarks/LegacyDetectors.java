@@ -0,0 +1,127 @@
+package com.aiquake.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Copies of the per-sample code the detection pipeline replaced, kept as the
+ * baseline the current implementation is measured against.
+ */
+final class LegacyDetectors {
+    private LegacyDetectors() {
+    }
+
+    /**
+     * SignalProcessor before the ring buffer: LinkedList history rescanned on every sample
+     */
+    static final class SignalProcessor {
+        private static final int WINDOW_SIZE = 50;
+        private static final float EARTHQUAKE_THRESHOLD = 1.5f;
+        private static final float NOISE_THRESHOLD = 0.1f;
+
+        private final Queue<Float> magnitudeHistory = new LinkedList<>();
+        private float lastMagnitude;
+        private long lastUpdateTime;
+        private boolean isPotentialEarthquake;
+
+        boolean processSample(float x, float y, float z, long timestampMillis) {
+            float magnitude = Math.abs((float) Math.sqrt(x * x + y * y + z * z) - 9.8f);
+            lastMagnitude = 0.1f * magnitude + 0.9f * lastMagnitude;
+
+            magnitudeHistory.offer(lastMagnitude);
+            if (magnitudeHistory.size() > WINDOW_SIZE) {
+                magnitudeHistory.poll();
+            }
+            if (magnitudeHistory.size() < WINDOW_SIZE) {
+                return false;
+            }
+
+            float sum = 0;
+            float maxMagnitude = 0;
+            int significantMovements = 0;
+            for (float mag : magnitudeHistory) {
+                sum += mag;
+                maxMagnitude = Math.max(maxMagnitude, mag);
+                if (mag > NOISE_THRESHOLD) {
+                    significantMovements++;
+                }
+            }
+            float averageMagnitude = sum / WINDOW_SIZE;
+
+            boolean isEarthquake = averageMagnitude > EARTHQUAKE_THRESHOLD
+                && significantMovements > WINDOW_SIZE * 0.3
+                && maxMagnitude > EARTHQUAKE_THRESHOLD * 1.5;
+            if (isEarthquake && !isPotentialEarthquake) {
+                isPotentialEarthquake = true;
+                lastUpdateTime = timestampMillis;
+            } else if (!isEarthquake && isPotentialEarthquake && timestampMillis - lastUpdateTime > 5000) {
+                isPotentialEarthquake = false;
+            }
+            return isPotentialEarthquake;
+        }
+    }
+
+    /**
+     * MainActivity.onSensorChanged window: List<Double> with remove(0) and two passes
+     * for mean and variance
+     */
+    static final class ActivityWindow {
+        private static final int WINDOW_SIZE = 10;
+
+        private final List<Double> accelerationWindow = new ArrayList<>();
+
+        double add(float x, float y, float z) {
+            double acceleration = Math.sqrt(x * x + y * y + z * z);
+            accelerationWindow.add(acceleration);
+            if (accelerationWindow.size() > WINDOW_SIZE) {
+                accelerationWindow.remove(0);
+            }
+            double mean = calculateMean(accelerationWindow);
+            return calculateVariance(accelerationWindow, mean);
+        }
+
+        private static double calculateMean(List<Double> values) {
+            double sum = 0.0;
+            for (Double value : values) {
+                sum += value;
+            }
+            return sum / values.size();
+        }
+
+        private static double calculateVariance(List<Double> values, double mean) {
+            double sumSquaredDiff = 0.0;
+            for (Double value : values) {
+                double diff = value - mean;
+                sumSquaredDiff += diff * diff;
+            }
+            return sumSquaredDiff / values.size();
+        }
+    }
+
+    /**
+     * EarthquakeDetectionService.onSensorChanged: Queue<Float> moving average, without the logging
+     */
+    static final class ServiceAverager {
+        private static final int MAGNITUDE_BUFFER_SIZE = 10;
+
+        private final Queue<Float> magnitudeBuffer = new LinkedList<>();
+
+        float add(float x, float y, float z) {
+            float magnitude = (float) Math.sqrt(x * x + y * y + z * z);
+            magnitudeBuffer.add(magnitude);
+            if (magnitudeBuffer.size() > MAGNITUDE_BUFFER_SIZE) {
+                magnitudeBuffer.remove();
+            }
+            float averageMagnitude = 0;
+            for (float value : magnitudeBuffer) {
+                averageMagnitude += value;
+            }
+            if (!magnitudeBuffer.isEmpty()) {
+                averageMagnitude /= magnitudeBuffer.size();
+            }
+            return averageMagnitude;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.aiquake.benchmarks;
+
+import com.aiquake.detection.AxisFeatureExtractor;
+import com.aiquake.detection.DetectionFrame;
+import com.aiquake.detection.DetectionPipeline;
+import com.aiquake.detection.EventClassifier;
+import com.aiquake.detection.FeatureVector;
+import com.aiquake.detection.QuakeMotionModel;
+import com.aiquake.detection.SpectralFeatureExtractor;
+import com.aiquake.detection.filter.FilterBank;
+import com.aiquake.utils.Fft;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of the detection pipeline per sample, in total and stage by stage.
+ * The stage benchmarks include the stages before them, since each stage
+ * reads what the previous one wrote to the frame.
+ */
+@State(Scope.Thread)
+public class PipelineBenchmark {
+    private SampleData data;
+    private long sequence;
+
+    private DetectionPipeline pipeline;
+    private DetectionFrame frame;
+    private FilterBank filterBank;
+    private AxisFeatureExtractor axisFeatures;
+    private SpectralFeatureExtractor spectralFeatures;
+    private EventClassifier classifier;
+    private float[] features;
+    private Fft fft;
+    private float[] re;
+    private float[] im;
+
+    @Setup
+    public void setUp() {
+        data = new SampleData();
+        pipeline = DetectionPipeline.createDefault();
+        frame = new DetectionFrame();
+        filterBank = new FilterBank();
+        axisFeatures = new AxisFeatureExtractor(DetectionPipeline.DEFAULT_WINDOW_SIZE);
+        spectralFeatures = new SpectralFeatureExtractor();
+        classifier = QuakeMotionModel.create();
+        features = new float[FeatureVector.SIZE];
+        features[FeatureVector.MAGNITUDE_SQUARED] = 0.2f;
+        features[FeatureVector.HORIZONTAL_ENERGY] = 0.15f;
+        features[FeatureVector.VERTICAL_ENERGY] = 0.01f;
+        features[FeatureVector.HORIZONTAL_RATIO] = 0.9f;
+        features[FeatureVector.PGA_SQUARED] = 0.3f;
+        features[FeatureVector.JERK_SQUARED] = 40f;
+        features[FeatureVector.DOMINANT_FREQUENCY] = 2f;
+        features[FeatureVector.GROUND_BAND_RATIO] = 0.9f;
+        features[FeatureVector.HIGH_BAND_RATIO] = 0.01f;
+        fft = new Fft(SpectralFeatureExtractor.DEFAULT_FFT_SIZE);
+        re = new float[fft.size()];
+        im = new float[fft.size()];
+    }
+
+    @Benchmark
+    public boolean defaultPipeline() {
+        long s = sequence++;
+        int i = (int) (s & SampleData.MASK);
+        return pipeline.process(data.timestamp(s), data.x[i], data.y[i], data.z[i]);
+    }
+
+    @Benchmark
+    public float filterBank() {
+        nextFrame();
+        filterBank.apply(frame);
+        return frame.getZ();
+    }
+
+    @Benchmark
+    public float filterAndAxisFeatures() {
+        nextFrame();
+        filterBank.apply(frame);
+        axisFeatures.extract(frame);
+        return frame.getFeature(FeatureVector.PGA_SQUARED);
+    }
+
+    @Benchmark
+    public float filterAndSpectralFeatures() {
+        nextFrame();
+        filterBank.apply(frame);
+        spectralFeatures.extract(frame);
+        return frame.getFeature(FeatureVector.DOMINANT_FREQUENCY);
+    }
+
+    @Benchmark
+    public float classify() {
+        return classifier.classify(features);
+    }
+
+    /**
+     * One full transform, the spectral stage runs one per axis pair every hop
+     */
+    @Benchmark
+    public float fft128() {
+        int offset = (int) (sequence++ & SampleData.MASK) & ~(re.length - 1);
+        for (int i = 0; i < re.length; i++) {
+            re[i] = data.x[offset + i];
+            im[i] = data.y[offset + i];
+        }
+        fft.transform(re, im);
+        return re[1];
+    }
+
+    private void nextFrame() {
+        long s = sequence++;
+        int i = (int) (s & SampleData.MASK);
+        frame.reset(data.timestamp(s), data.x[i], data.y[i], data.z[i]);
+    }
+}
@@ -0,0 +1,43 @@
+package com.aiquake.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Deterministic accelerometer trace used as benchmark input: sensor noise on
+ * top of gravity with a stretch of 2 Hz shaking, so the detectors exercise
+ * both their quiet and their triggered paths.
+ */
+final class SampleData {
+    static final int SIZE = 8192; // Power of two, the index wraps with a mask
+    static final int MASK = SIZE - 1;
+    static final int RATE_HZ = 50;
+    static final long PERIOD_NANOS = 1_000_000_000L / RATE_HZ;
+
+    final float[] x = new float[SIZE];
+    final float[] y = new float[SIZE];
+    final float[] z = new float[SIZE];
+
+    SampleData() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            float shaking = 0f;
+            if (i % 4096 >= 3000 && i % 4096 < 3500) {
+                shaking = (float) Math.sin(2 * Math.PI * 2 * i / RATE_HZ) * 0.5f;
+            }
+            x[i] = shaking + 0.03f * (float) random.nextGaussian();
+            y[i] = 0.6f * shaking + 0.03f * (float) random.nextGaussian();
+            z[i] = 9.81f + 0.4f * shaking + 0.03f * (float) random.nextGaussian();
+        }
+    }
+
+    /**
+     * Timestamps keep increasing when the trace wraps around
+     */
+    long timestamp(long sequence) {
+        return sequence * PERIOD_NANOS;
+    }
+
+    static float magnitude(float x, float y, float z) {
+        return (float) Math.sqrt(x * x + y * y + z * z);
+    }
+}
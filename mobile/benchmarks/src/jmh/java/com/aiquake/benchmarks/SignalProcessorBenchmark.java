@@ -0,0 +1,42 @@
+package com.aiquake.benchmarks;
+
+import com.aiquake.utils.SignalProcessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Window update and pattern detection of {@link SignalProcessor}, against the
+ * LinkedList implementation it replaced.
+ */
+@State(Scope.Thread)
+public class SignalProcessorBenchmark {
+    private SampleData data;
+    private long sequence;
+
+    private LegacyDetectors.SignalProcessor legacy;
+    private SignalProcessor current;
+
+    @Setup
+    public void setUp() {
+        data = new SampleData();
+        legacy = new LegacyDetectors.SignalProcessor();
+        current = new SignalProcessor();
+    }
+
+    @Benchmark
+    public boolean legacyProcessSample() {
+        long s = sequence++;
+        int i = (int) (s & SampleData.MASK);
+        return legacy.processSample(data.x[i], data.y[i], data.z[i], data.timestamp(s) / 1_000_000L);
+    }
+
+    @Benchmark
+    public boolean processSample() {
+        long s = sequence++;
+        int i = (int) (s & SampleData.MASK);
+        return current.processSample(data.timestamp(s), data.x[i], data.y[i], data.z[i]);
+    }
+}
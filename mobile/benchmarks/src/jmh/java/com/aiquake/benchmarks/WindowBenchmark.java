@@ -0,0 +1,54 @@
+package com.aiquake.benchmarks;
+
+import com.aiquake.utils.RingBufferWindow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Sliding window statistics per sample: the List and Queue based helpers of
+ * MainActivity and the detection service against {@link RingBufferWindow}.
+ *
+ * Every variant pays for the magnitude of the sample: the legacy helpers take
+ * the axes and compute it inside {@code add}, while
+ * {@link #ringBufferMeanVariance} computes {@link SampleData#magnitude} itself
+ * before adding it. Both costs are inside the timed region.
+ */
+@State(Scope.Thread)
+public class WindowBenchmark {
+    private SampleData data;
+    private long sequence;
+
+    private LegacyDetectors.ActivityWindow activityWindow;
+    private LegacyDetectors.ServiceAverager serviceAverager;
+    private RingBufferWindow ringBuffer;
+
+    @Setup
+    public void setUp() {
+        data = new SampleData();
+        activityWindow = new LegacyDetectors.ActivityWindow();
+        serviceAverager = new LegacyDetectors.ServiceAverager();
+        ringBuffer = new RingBufferWindow(10, Float.MAX_VALUE);
+    }
+
+    @Benchmark
+    public double legacyActivityMeanVariance() {
+        int i = (int) (sequence++ & SampleData.MASK);
+        return activityWindow.add(data.x[i], data.y[i], data.z[i]);
+    }
+
+    @Benchmark
+    public float legacyServiceAverage() {
+        int i = (int) (sequence++ & SampleData.MASK);
+        return serviceAverager.add(data.x[i], data.y[i], data.z[i]);
+    }
+
+    @Benchmark
+    public float ringBufferMeanVariance() {
+        int i = (int) (sequence++ & SampleData.MASK);
+        ringBuffer.add(SampleData.magnitude(data.x[i], data.y[i], data.z[i]));
+        return ringBuffer.getMean() + ringBuffer.getVariance();
+    }
+}
@@ -0,0 +1,154 @@
+package com.aiquake.capture;
+
+import com.aiquake.detection.replay.SensorTrace;
+
+/**
+ * Streams the samples of a block written by {@link SampleBlockEncoder} without
+ * expanding it: one cursor walks each column, and {@link #next()} advances
+ * them together.
+ *
+ * <pre>
+ *   SampleBlockDecoder decoder = new SampleBlockDecoder(block);
+ *   while (decoder.next()) {
+ *       use(decoder.getTimestampNanos(), decoder.getX(), decoder.getY(), decoder.getZ());
+ *   }
+ * </pre>
+ */
+public class SampleBlockDecoder {
+    private final byte[] data;
+    private final int count;
+    private final float resolution;
+
+    // Read positions in the four columns
+    private int timestampPosition;
+    private int xPosition;
+    private int yPosition;
+    private int zPosition;
+    private int varintEnd; // Position after the varint read last
+
+    private int index = -1;
+    private long timestampMicros;
+    private long timestampDelta;
+    private long quantizedX;
+    private long quantizedY;
+    private long quantizedZ;
+
+    /**
+     * @throws IllegalArgumentException if the block has an unknown version or is truncated
+     */
+    public SampleBlockDecoder(byte[] data) {
+        this.data = data;
+        if (data.length == 0 || data[0] != SampleBlockEncoder.VERSION) {
+            throw new IllegalArgumentException("Unsupported sample block version");
+        }
+        int position = 1;
+        count = (int) readVarint(position);
+        position = varintEnd;
+        checkAvailable(position, 4);
+        resolution = Float.intBitsToFloat(((data[position] & 0xFF) << 24)
+            | ((data[position + 1] & 0xFF) << 16)
+            | ((data[position + 2] & 0xFF) << 8)
+            | (data[position + 3] & 0xFF));
+        position += 4;
+        int timestampLength = (int) readVarint(position);
+        int xLength = (int) readVarint(varintEnd);
+        int yLength = (int) readVarint(varintEnd);
+
+        timestampPosition = varintEnd;
+        xPosition = timestampPosition + timestampLength;
+        yPosition = xPosition + xLength;
+        zPosition = yPosition + yLength;
+        if (count < 0 || zPosition > data.length) {
+            throw new IllegalArgumentException("Truncated sample block");
+        }
+    }
+
+    /**
+     * Number of samples in a block, read from its header
+     */
+    public static int count(byte[] data) {
+        return new SampleBlockDecoder(data).count;
+    }
+
+    /**
+     * Append every sample of a block to a trace, e.g. to replay stored waveforms
+     */
+    public static void decodeInto(byte[] data, SensorTrace trace) {
+        SampleBlockDecoder decoder = new SampleBlockDecoder(data);
+        while (decoder.next()) {
+            trace.add(decoder.getTimestampNanos(), decoder.getX(), decoder.getY(), decoder.getZ());
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Move to the next sample
+     * @return false once every sample has been read
+     */
+    public boolean next() {
+        if (index + 1 >= count) {
+            return false;
+        }
+        index++;
+
+        long timestampValue = readVarint(timestampPosition);
+        timestampPosition = varintEnd;
+        if (index == 0) {
+            timestampMicros = timestampValue;
+        } else {
+            timestampDelta = index == 1 ? timestampValue : timestampDelta + timestampValue;
+            timestampMicros += timestampDelta;
+        }
+        quantizedX += readVarint(xPosition);
+        xPosition = varintEnd;
+        quantizedY += readVarint(yPosition);
+        yPosition = varintEnd;
+        quantizedZ += readVarint(zPosition);
+        zPosition = varintEnd;
+        return true;
+    }
+
+    public long getTimestampNanos() {
+        return timestampMicros * 1000L;
+    }
+
+    public float getX() {
+        return quantizedX * resolution;
+    }
+
+    public float getY() {
+        return quantizedY * resolution;
+    }
+
+    public float getZ() {
+        return quantizedZ * resolution;
+    }
+
+    private long readVarint(int position) {
+        long zigzag = 0;
+        int shift = 0;
+        while (true) {
+            checkAvailable(position, 1);
+            byte b = data[position++];
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed varint in sample block");
+            }
+        }
+        varintEnd = position;
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private void checkAvailable(int position, int bytes) {
+        if (position + bytes > data.length) {
+            throw new IllegalArgumentException("Truncated sample block");
+        }
+    }
+}
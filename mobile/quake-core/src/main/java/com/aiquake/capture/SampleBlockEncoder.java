@@ -0,0 +1,134 @@
+package com.aiquake.capture;
+
+import java.util.Arrays;
+
+/**
+ * Encodes a window of accelerometer samples into a compact columnar block.
+ *
+ * Layout, all integers as zigzag varints unless noted:
+ * <pre>
+ *   version               1 byte
+ *   count
+ *   resolution            4 byte float, m/s² per quantization step
+ *   timestamp column length, x column length, y column length
+ *   timestamps            first value, first delta, then delta of deltas, in microseconds
+ *   x, y, z               first quantized value, then deltas
+ * </pre>
+ * Samples arrive at a nearly constant rate and the axes change little from one
+ * sample to the next, so most values fit in one byte: about 5 bytes per
+ * sample instead of more than 50 for a {@code SensorData} row. Quantizing to
+ * {@link #DEFAULT_RESOLUTION} stays below the resolution of phone
+ * accelerometers. Storing each column on its own keeps similar values
+ * together and lets {@link SampleBlockDecoder} stream the samples back.
+ *
+ * Not thread safe: the encoder reuses its buffer between blocks.
+ */
+public class SampleBlockEncoder {
+    public static final int VERSION = 1;
+    public static final float DEFAULT_RESOLUTION = 0.001f; // m/s²
+
+    private final float resolution;
+    private final float inverseResolution;
+    private byte[] buffer = new byte[1024];
+    private int length;
+
+    public SampleBlockEncoder() {
+        this(DEFAULT_RESOLUTION);
+    }
+
+    public SampleBlockEncoder(float resolution) {
+        if (!(resolution > 0)) {
+            throw new IllegalArgumentException("Resolution must be positive");
+        }
+        this.resolution = resolution;
+        this.inverseResolution = 1f / resolution;
+    }
+
+    /**
+     * Encode {@code count} samples starting at {@code offset}, timestamps in nanoseconds
+     */
+    public byte[] encode(long[] timestamps, float[] x, float[] y, float[] z, int offset, int count) {
+        length = 0;
+        writeByte(VERSION);
+        writeVarint(count);
+        writeInt(Float.floatToIntBits(resolution));
+
+        // The column lengths are only known once encoded: encode the columns after a
+        // gap, then move them up behind the lengths
+        int headerEnd = length;
+        int columnsStart = headerEnd + 3 * 5; // Longest varint of three ints
+        ensureCapacity(columnsStart - headerEnd);
+        length = columnsStart;
+        writeTimestamps(timestamps, offset, count);
+        int timestampLength = length - columnsStart;
+        writeAxis(x, offset, count);
+        int xLength = length - columnsStart - timestampLength;
+        writeAxis(y, offset, count);
+        int yLength = length - columnsStart - timestampLength - xLength;
+        writeAxis(z, offset, count);
+        int columnsEnd = length;
+
+        length = headerEnd;
+        writeVarint(timestampLength);
+        writeVarint(xLength);
+        writeVarint(yLength);
+        int columnLength = columnsEnd - columnsStart;
+        System.arraycopy(buffer, columnsStart, buffer, length, columnLength);
+        length += columnLength;
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private void writeTimestamps(long[] timestamps, int offset, int count) {
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < count; i++) {
+            long micros = timestamps[offset + i] / 1000L;
+            if (i == 0) {
+                writeVarint(micros);
+            } else {
+                long delta = micros - previous;
+                writeVarint(i == 1 ? delta : delta - previousDelta);
+                previousDelta = delta;
+            }
+            previous = micros;
+        }
+    }
+
+    private void writeAxis(float[] values, int offset, int count) {
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long quantized = Math.round(values[offset + i] * inverseResolution);
+            writeVarint(quantized - previous);
+            previous = quantized;
+        }
+    }
+
+    private void writeVarint(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        ensureCapacity(10);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer[length++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[length++] = (byte) zigzag;
+    }
+
+    private void writeInt(int value) {
+        ensureCapacity(4);
+        buffer[length++] = (byte) (value >>> 24);
+        buffer[length++] = (byte) (value >>> 16);
+        buffer[length++] = (byte) (value >>> 8);
+        buffer[length++] = (byte) value;
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.aiquake.capture;
+
+import com.aiquake.detection.replay.SensorTrace;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Circular file of raw accelerometer samples, memory mapped so that appending
+ * a sample is a few stores into the page cache: no system call, no SQLite row
+ * and no allocation.
+ *
+ * Every record has the same width ({@code long timestampNanos, float x, y, z}),
+ * so the file is pre-allocated once for {@code capacity} samples and the
+ * oldest samples are overwritten as new ones arrive. The number of samples
+ * written is kept in the header, so the last minutes survive a restart of the
+ * process. Not thread safe: append and snapshot from the same thread.
+ */
+public class SampleRingFile implements Closeable {
+    public static final int RECORD_SIZE = 8 + 3 * 4;
+
+    private static final int MAGIC = 0x51524E47; // "QRNG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private long count; // Samples written since the file was created
+
+    private SampleRingFile(RandomAccessFile file, MappedByteBuffer buffer, int capacity, long count) {
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.count = count;
+    }
+
+    /**
+     * Open the ring file, creating or resizing it if needed. An existing file with the
+     * same capacity keeps its samples.
+     */
+    public static SampleRingFile open(File path, int capacity) throws IOException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            boolean reusable = file.length() == size;
+            if (!reusable) {
+                file.setLength(size);
+            }
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            long count = 0;
+            if (reusable
+                && buffer.getInt(MAGIC_OFFSET) == MAGIC
+                && buffer.getInt(VERSION_OFFSET) == VERSION
+                && buffer.getInt(CAPACITY_OFFSET) == capacity) {
+                count = Math.max(0, buffer.getLong(COUNT_OFFSET));
+            } else {
+                buffer.putInt(MAGIC_OFFSET, MAGIC);
+                buffer.putInt(VERSION_OFFSET, VERSION);
+                buffer.putInt(CAPACITY_OFFSET, capacity);
+                buffer.putLong(COUNT_OFFSET, 0);
+            }
+            return new SampleRingFile(file, buffer, capacity, count);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of samples the file holds before overwriting the oldest
+     */
+    public static int capacityFor(int minutes, int samplingRateHz) {
+        return minutes * 60 * samplingRateHz;
+    }
+
+    public void append(long timestampNanos, float x, float y, float z) {
+        int position = HEADER_SIZE + (int) (count % capacity) * RECORD_SIZE;
+        buffer.putLong(position, timestampNanos);
+        buffer.putFloat(position + 8, x);
+        buffer.putFloat(position + 12, y);
+        buffer.putFloat(position + 16, z);
+        count++;
+        buffer.putLong(COUNT_OFFSET, count);
+    }
+
+    /**
+     * Number of samples currently held
+     */
+    public int size() {
+        return (int) Math.min(count, capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Copy the held samples with {@code startNanos <= timestamp <= endNanos}, oldest first
+     */
+    public SensorTrace snapshot(long startNanos, long endNanos) {
+        int size = size();
+        long first = count - size;
+        SensorTrace trace = new SensorTrace(Math.max(1, size));
+        for (long sequence = first; sequence < count; sequence++) {
+            int position = HEADER_SIZE + (int) (sequence % capacity) * RECORD_SIZE;
+            long timestamp = buffer.getLong(position);
+            if (timestamp < startNanos || timestamp > endNanos) {
+                continue;
+            }
+            trace.add(timestamp,
+                buffer.getFloat(position + 8),
+                buffer.getFloat(position + 12),
+                buffer.getFloat(position + 16));
+        }
+        return trace;
+    }
+
+    /**
+     * Write the dirty pages to storage, e.g. before the process may be killed
+     */
+    public void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        file.close();
+    }
+}
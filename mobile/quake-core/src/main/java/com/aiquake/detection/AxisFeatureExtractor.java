@@ -0,0 +1,94 @@
+package com.aiquake.detection;
+
+import com.aiquake.utils.RingBufferWindow;
+
+/**
+ * Computes the {@link FeatureVector} of each sample from the three filtered
+ * axes instead of a single scalar magnitude.
+ *
+ * The acceleration is split into the component along gravity (vertical) and
+ * the rest (horizontal) using the gravity estimate of the filter stage, since
+ * ground motion and handling of the phone load the two very differently.
+ * Everything is computed from squared values and updated incrementally over a
+ * sliding window, so no square root is taken per sample.
+ */
+public class AxisFeatureExtractor implements FeatureExtractor {
+    // Below this squared gravity the estimate is unusable (e.g. no filter stage)
+    // and the device z axis is taken as vertical
+    private static final float MIN_GRAVITY_SQUARED = 1f;
+
+    private final RingBufferWindow energyWindow;
+    private final RingBufferWindow horizontalWindow;
+    private final RingBufferWindow jerkWindow;
+
+    private float previousX;
+    private float previousY;
+    private float previousZ;
+    private long previousTimestampNanos;
+    private boolean hasPrevious;
+
+    public AxisFeatureExtractor(int windowSize) {
+        energyWindow = new RingBufferWindow(windowSize, Float.MAX_VALUE);
+        horizontalWindow = new RingBufferWindow(windowSize, Float.MAX_VALUE);
+        jerkWindow = new RingBufferWindow(windowSize, Float.MAX_VALUE);
+    }
+
+    @Override
+    public void extract(DetectionFrame frame) {
+        float x = frame.getX();
+        float y = frame.getY();
+        float z = frame.getZ();
+        float magnitudeSquared = x * x + y * y + z * z;
+
+        // Vertical component: projection onto gravity, squared to avoid normalising g
+        float gx = frame.getGravityX();
+        float gy = frame.getGravityY();
+        float gz = frame.getGravityZ();
+        float gravitySquared = gx * gx + gy * gy + gz * gz;
+        float verticalSquared;
+        if (gravitySquared >= MIN_GRAVITY_SQUARED) {
+            float dot = x * gx + y * gy + z * gz;
+            verticalSquared = dot * dot / gravitySquared;
+        } else {
+            verticalSquared = z * z;
+        }
+        float horizontalSquared = Math.max(0f, magnitudeSquared - verticalSquared);
+
+        long timestampNanos = frame.getTimestampNanos();
+        if (hasPrevious && timestampNanos > previousTimestampNanos) {
+            float dt = (timestampNanos - previousTimestampNanos) / 1e9f;
+            float dx = x - previousX;
+            float dy = y - previousY;
+            float dz = z - previousZ;
+            jerkWindow.add((dx * dx + dy * dy + dz * dz) / (dt * dt));
+        }
+        previousX = x;
+        previousY = y;
+        previousZ = z;
+        previousTimestampNanos = timestampNanos;
+        hasPrevious = true;
+
+        energyWindow.add(magnitudeSquared);
+        horizontalWindow.add(horizontalSquared);
+
+        // Clamp the rounding error of the running sums
+        float totalEnergy = Math.max(0f, energyWindow.getMean());
+        float horizontalEnergy = Math.max(0f, Math.min(horizontalWindow.getMean(), totalEnergy));
+
+        frame.setFeature(FeatureVector.MAGNITUDE_SQUARED, magnitudeSquared);
+        frame.setFeature(FeatureVector.HORIZONTAL_ENERGY, horizontalEnergy);
+        frame.setFeature(FeatureVector.VERTICAL_ENERGY, totalEnergy - horizontalEnergy);
+        frame.setFeature(FeatureVector.HORIZONTAL_RATIO, totalEnergy > 0f ? horizontalEnergy / totalEnergy : 0f);
+        frame.setFeature(FeatureVector.PGA_SQUARED, energyWindow.getMax());
+        frame.setFeature(FeatureVector.JERK_SQUARED, jerkWindow.size() > 0 ? jerkWindow.getMax() : 0f);
+    }
+
+    @Override
+    public void reset() {
+        energyWindow.clear();
+        horizontalWindow.clear();
+        jerkWindow.clear();
+        previousTimestampNanos = 0;
+        hasPrevious = false;
+    }
+}
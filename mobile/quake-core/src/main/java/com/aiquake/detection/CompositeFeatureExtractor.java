@@ -0,0 +1,27 @@
+package com.aiquake.detection;
+
+/**
+ * Runs several feature extractors on the same frame, in order, so independent
+ * feature groups can fill their own slots of the {@link FeatureVector}.
+ */
+public class CompositeFeatureExtractor implements FeatureExtractor {
+    private final FeatureExtractor[] extractors;
+
+    public CompositeFeatureExtractor(FeatureExtractor... extractors) {
+        this.extractors = extractors.clone();
+    }
+
+    @Override
+    public void extract(DetectionFrame frame) {
+        for (FeatureExtractor extractor : extractors) {
+            extractor.extract(frame);
+        }
+    }
+
+    @Override
+    public void reset() {
+        for (FeatureExtractor extractor : extractors) {
+            extractor.reset();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.aiquake.detection;
+
+/**
+ * Last pipeline stage: turns a trigger that stays on for many samples into a
+ * single detection per cooldown period.
+ */
+public class Debouncer {
+    private final long cooldownNanos;
+    private long lastAcceptedNanos;
+    private boolean hasAccepted;
+
+    public Debouncer(long cooldownMillis) {
+        this.cooldownNanos = cooldownMillis * 1_000_000L;
+    }
+
+    /**
+     * @return true if a detection at this time should be reported
+     */
+    public boolean accept(long timestampNanos) {
+        if (hasAccepted && timestampNanos - lastAcceptedNanos < cooldownNanos) {
+            return false;
+        }
+        hasAccepted = true;
+        lastAcceptedNanos = timestampNanos;
+        return true;
+    }
+
+    public void reset() {
+        hasAccepted = false;
+        lastAcceptedNanos = 0;
+    }
+}
@@ -0,0 +1,175 @@
+package com.aiquake.detection;
+
+import java.util.Arrays;
+
+/**
+ * Per-sample state passed through the stages of a {@link DetectionPipeline}.
+ *
+ * A single instance is reused for every sample, so listeners must copy any
+ * value they want to keep after their callback returns.
+ */
+public class DetectionFrame {
+    private long timestampNanos;
+
+    // Accelerometer values as delivered by the sensor
+    private float rawX;
+    private float rawY;
+    private float rawZ;
+
+    // Accelerometer values after the filter stage
+    private float x;
+    private float y;
+    private float z;
+
+    // Low-frequency part of the acceleration removed by the filter stage
+    private float gravityX;
+    private float gravityY;
+    private float gravityZ;
+
+    // Features, indexed by the FeatureVector constants
+    private final float[] features = new float[FeatureVector.SIZE];
+
+    // Trigger activity relative to its threshold, 1.0 means the trigger fires
+    private float triggerLevel;
+    private boolean triggered;
+    // Classifier confidence that the motion is an earthquake, only set while triggered
+    private float confidence;
+
+    /**
+     * Load a new sample, clearing every value derived from the previous one
+     */
+    public void reset(long timestampNanos, float x, float y, float z) {
+        this.timestampNanos = timestampNanos;
+        this.rawX = x;
+        this.rawY = y;
+        this.rawZ = z;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.gravityX = 0f;
+        this.gravityY = 0f;
+        this.gravityZ = 0f;
+        Arrays.fill(features, 0f);
+        this.triggerLevel = 0f;
+        this.triggered = false;
+        this.confidence = 0f;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public long getTimestampMillis() {
+        return timestampNanos / 1_000_000L;
+    }
+
+    public float getRawX() {
+        return rawX;
+    }
+
+    public float getRawY() {
+        return rawY;
+    }
+
+    public float getRawZ() {
+        return rawZ;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getZ() {
+        return z;
+    }
+
+    public void setFiltered(float x, float y, float z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public float getGravityX() {
+        return gravityX;
+    }
+
+    public float getGravityY() {
+        return gravityY;
+    }
+
+    public float getGravityZ() {
+        return gravityZ;
+    }
+
+    public void setGravity(float x, float y, float z) {
+        this.gravityX = x;
+        this.gravityY = y;
+        this.gravityZ = z;
+    }
+
+    /**
+     * Feature vector of this sample, indexed by the {@link FeatureVector} constants.
+     * The array is reused for the next sample and must not be modified by listeners.
+     */
+    public float[] getFeatures() {
+        return features;
+    }
+
+    public float getFeature(int index) {
+        return features[index];
+    }
+
+    public void setFeature(int index, float value) {
+        features[index] = value;
+    }
+
+    /**
+     * Magnitude of the filtered acceleration in m/s²
+     */
+    public float getMagnitude() {
+        return (float) Math.sqrt(features[FeatureVector.MAGNITUDE_SQUARED]);
+    }
+
+    /**
+     * Peak ground acceleration over the feature window in m/s²
+     */
+    public float getPeak() {
+        return (float) Math.sqrt(features[FeatureVector.PGA_SQUARED]);
+    }
+
+    /**
+     * Variance of the filtered acceleration over the feature window. The band-pass
+     * removes the mean, so this is the mean squared acceleration.
+     */
+    public float getVariance() {
+        return features[FeatureVector.HORIZONTAL_ENERGY] + features[FeatureVector.VERTICAL_ENERGY];
+    }
+
+    public float getTriggerLevel() {
+        return triggerLevel;
+    }
+
+    public void setTriggerLevel(float triggerLevel) {
+        this.triggerLevel = triggerLevel;
+    }
+
+    public boolean isTriggered() {
+        return triggered;
+    }
+
+    void setTriggered(boolean triggered) {
+        this.triggered = triggered;
+    }
+
+    public float getConfidence() {
+        return confidence;
+    }
+
+    void setConfidence(float confidence) {
+        this.confidence = confidence;
+    }
+}
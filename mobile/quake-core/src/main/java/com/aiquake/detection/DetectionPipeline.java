@@ -0,0 +1,154 @@
+package com.aiquake.detection;
+
+import com.aiquake.detection.filter.FilterBank;
+import com.aiquake.utils.StaLtaDetector;
+
+import java.util.Arrays;
+
+/**
+ * Single streaming detection pipeline for accelerometer samples:
+ * filter -> feature extraction -> trigger -> classification -> debounce.
+ *
+ * Every sample is processed once, no matter how many listeners are attached,
+ * and the stages only work on primitive values so nothing is allocated per
+ * sample.
+ */
+public class DetectionPipeline {
+    public static final int DEFAULT_WINDOW_SIZE = 10;
+    public static final long DEFAULT_COOLDOWN_MILLIS = 10000; // 10 seconds between detections
+    public static final float DEFAULT_MIN_CONFIDENCE = 0.5f;
+
+    /**
+     * Receives the pipeline output on the thread that calls {@link #process}.
+     * The frame is reused for the next sample.
+     */
+    public interface Listener {
+        /**
+         * Called for every processed sample
+         */
+        void onFrame(DetectionFrame frame);
+
+        /**
+         * Called when the trigger fired, the classifier is confident enough and the
+         * debounce period has elapsed
+         */
+        void onDetection(DetectionFrame frame);
+    }
+
+    private final SampleFilter filter;
+    private final FeatureExtractor featureExtractor;
+    private final TriggerDetector trigger;
+    private final EventClassifier classifier;
+    private final float minConfidence;
+    private final Debouncer debouncer;
+    private final DetectionFrame frame = new DetectionFrame();
+    // Running mean of the classifier output over the current trigger episode
+    private float episodeConfidenceSum;
+    private int episodeSamples;
+    // Copied on write so the per-sample loop needs neither a lock nor an iterator
+    private volatile Listener[] listeners = new Listener[0];
+
+    /**
+     * @param minConfidence Classifier confidence a triggered sample needs to count as a detection
+     */
+    public DetectionPipeline(SampleFilter filter, FeatureExtractor featureExtractor, TriggerDetector trigger,
+                             EventClassifier classifier, float minConfidence, Debouncer debouncer) {
+        this.filter = filter;
+        this.featureExtractor = featureExtractor;
+        this.trigger = trigger;
+        this.classifier = classifier;
+        this.minConfidence = minConfidence;
+        this.debouncer = debouncer;
+    }
+
+    /**
+     * Pipeline used by the detection service
+     */
+    public static DetectionPipeline createDefault() {
+        return new DetectionPipeline(
+            new FilterBank(),
+            new CompositeFeatureExtractor(
+                new AxisFeatureExtractor(DEFAULT_WINDOW_SIZE),
+                new SpectralFeatureExtractor()
+            ),
+            new StaLtaDetector(),
+            QuakeMotionModel.create(),
+            DEFAULT_MIN_CONFIDENCE,
+            new Debouncer(DEFAULT_COOLDOWN_MILLIS)
+        );
+    }
+
+    public synchronized void addListener(Listener listener) {
+        for (Listener existing : listeners) {
+            if (existing == listener) {
+                return;
+            }
+        }
+        Listener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    public synchronized void removeListener(Listener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                Listener[] updated = new Listener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, i);
+                System.arraycopy(listeners, i + 1, updated, i, updated.length - i);
+                listeners = updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Run one accelerometer sample through all stages
+     * @param timestampNanos Sample time in nanoseconds (SensorEvent.timestamp)
+     * @return true if this sample produced a detection
+     */
+    public boolean process(long timestampNanos, float x, float y, float z) {
+        frame.reset(timestampNanos, x, y, z);
+
+        if (filter.apply(frame)) {
+            // The feature windows assume evenly spaced samples, e.g. the spectrum
+            // derives its bin width from the window span. Refill them at the new rate
+            featureExtractor.reset();
+        }
+        featureExtractor.extract(frame);
+        boolean triggered = trigger.update(frame);
+        frame.setTriggered(triggered);
+
+        // The classifier is the expensive stage, only ask it about triggered samples.
+        // Single windows of footsteps can look like shaking, so the decision uses
+        // the mean confidence of the whole trigger episode so far
+        boolean detected = false;
+        if (triggered) {
+            episodeConfidenceSum += classifier.classify(frame.getFeatures());
+            episodeSamples++;
+            float confidence = episodeConfidenceSum / episodeSamples;
+            frame.setConfidence(confidence);
+            detected = confidence >= minConfidence && debouncer.accept(timestampNanos);
+        } else {
+            episodeConfidenceSum = 0f;
+            episodeSamples = 0;
+        }
+
+        Listener[] current = listeners;
+        for (Listener listener : current) {
+            listener.onFrame(frame);
+            if (detected) {
+                listener.onDetection(frame);
+            }
+        }
+        return detected;
+    }
+
+    public void reset() {
+        filter.reset();
+        featureExtractor.reset();
+        trigger.reset();
+        debouncer.reset();
+        episodeConfidenceSum = 0f;
+        episodeSamples = 0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.aiquake.detection;
+
+/**
+ * Fourth pipeline stage: estimates how likely a triggered sample is to be an
+ * earthquake rather than human motion. Only runs while the trigger fires, so
+ * its cost is paid on a small fraction of the samples.
+ */
+public interface EventClassifier {
+    /**
+     * Classifier that accepts every trigger with full confidence
+     */
+    EventClassifier NONE = new EventClassifier() {
+        @Override
+        public float classify(float[] features) {
+            return 1f;
+        }
+    };
+
+    /**
+     * @param features Feature vector indexed by the {@link FeatureVector} constants
+     * @return Confidence between 0 and 1 that the motion is an earthquake
+     */
+    float classify(float[] features);
+}
@@ -0,0 +1,11 @@
+package com.aiquake.detection;
+
+/**
+ * Second pipeline stage: computes the features consumed by the trigger and by
+ * display subscribers from the filtered axes.
+ */
+public interface FeatureExtractor {
+    void extract(DetectionFrame frame);
+
+    void reset();
+}
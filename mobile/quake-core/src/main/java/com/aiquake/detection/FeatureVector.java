@@ -0,0 +1,34 @@
+package com.aiquake.detection;
+
+/**
+ * Indices of the values in {@link DetectionFrame#getFeatures()}.
+ *
+ * Accelerations are kept squared so the feature stage never needs a square
+ * root; consumers that want m/s² take the root of the few values they read.
+ */
+public final class FeatureVector {
+    /** Squared magnitude of the filtered acceleration of this sample */
+    public static final int MAGNITUDE_SQUARED = 0;
+    /** Mean squared acceleration perpendicular to gravity over the window */
+    public static final int HORIZONTAL_ENERGY = 1;
+    /** Mean squared acceleration along gravity over the window */
+    public static final int VERTICAL_ENERGY = 2;
+    /** Horizontal share of the total energy, between 0 and 1 */
+    public static final int HORIZONTAL_RATIO = 3;
+    /** Squared peak ground acceleration over the window */
+    public static final int PGA_SQUARED = 4;
+    /** Squared peak jerk (change of acceleration per second) over the window */
+    public static final int JERK_SQUARED = 5;
+
+    /** Frequency with the most energy in the last spectrum, in Hz */
+    public static final int DOMINANT_FREQUENCY = 6;
+    /** Share of the spectral energy between 1 and 5 Hz, typical for ground motion */
+    public static final int GROUND_BAND_RATIO = 7;
+    /** Share of the spectral energy at 10 Hz and above, typical for handling */
+    public static final int HIGH_BAND_RATIO = 8;
+
+    public static final int SIZE = 9;
+
+    private FeatureVector() {
+    }
+}
@@ -0,0 +1,49 @@
+package com.aiquake.detection;
+
+/**
+ * Converts the peak ground acceleration measured by the pipeline into the
+ * intensity and magnitude figures shown to users and stored with events.
+ *
+ * A single phone cannot locate an event, so the magnitude is a felt-intensity
+ * estimate: the peak acceleration gives a Modified Mercalli intensity through
+ * the relation of Wald et al. (1999), and that intensity is read as the
+ * epicentral intensity of the Gutenberg-Richter (1956) relation
+ * M = 1 + 2/3 I0. Shaking far from a large event is therefore reported as a
+ * smaller, nearer one, which is the best a single station can do.
+ */
+public final class GroundMotion {
+    public static final double MIN_INTENSITY = 1.0; // Not felt
+    public static final double MAX_INTENSITY = 10.0; // Extreme
+
+    private static final double CM_PER_M = 100.0;
+    // Wald et al. (1999): the steeper branch applies from intensity V
+    private static final double HIGH_BRANCH_INTENSITY = 5.0;
+
+    private GroundMotion() {
+    }
+
+    /**
+     * Modified Mercalli intensity of a peak ground acceleration, between
+     * {@link #MIN_INTENSITY} and {@link #MAX_INTENSITY}
+     * @param peakAcceleration Gravity-free peak acceleration in m/s²
+     */
+    public static double intensity(double peakAcceleration) {
+        if (!(peakAcceleration > 0)) {
+            return MIN_INTENSITY;
+        }
+        double logPga = Math.log10(peakAcceleration * CM_PER_M);
+        double intensity = 3.66 * logPga - 1.66;
+        if (intensity < HIGH_BRANCH_INTENSITY) {
+            intensity = 2.20 * logPga + 1.00;
+        }
+        return Math.max(MIN_INTENSITY, Math.min(MAX_INTENSITY, intensity));
+    }
+
+    /**
+     * Magnitude estimate of a peak ground acceleration, assuming the device is near the epicentre
+     * @param peakAcceleration Gravity-free peak acceleration in m/s²
+     */
+    public static double estimateMagnitude(double peakAcceleration) {
+        return 1.0 + 2.0 / 3.0 * intensity(peakAcceleration);
+    }
+}
@@ -0,0 +1,58 @@
+package com.aiquake.detection;
+
+/**
+ * Logistic regression over the {@link FeatureVector} with 8-bit quantized weights.
+ *
+ * Each feature is optionally log-scaled (for the squared accelerations, which
+ * span several orders of magnitude), standardised, and multiplied by its
+ * integer weight. The weight scale is applied once to the sum, so inference is
+ * a short loop over primitive arrays that never allocates.
+ */
+public class LogisticRegressionClassifier implements EventClassifier {
+    // Keeps the logarithm finite for a perfectly still signal
+    private static final float LOG_FLOOR = 1e-6f;
+
+    private final boolean[] logScaled;
+    private final float[] mean;
+    private final float[] inverseStd;
+    private final byte[] weights;
+    private final float weightScale;
+    private final float bias;
+
+    /**
+     * @param logScaled Features replaced by their base-10 logarithm before standardising
+     * @param mean Centre of each (log-scaled) feature, subtracted before weighting
+     * @param inverseStd Inverse standard deviation of each (log-scaled) feature
+     * @param weights Quantized weights, the real weight is {@code weights[i] * weightScale}
+     */
+    public LogisticRegressionClassifier(boolean[] logScaled, float[] mean, float[] inverseStd,
+                                        byte[] weights, float weightScale, float bias) {
+        int size = weights.length;
+        if (logScaled.length != size || mean.length != size || inverseStd.length != size) {
+            throw new IllegalArgumentException("Model arrays must have the same length");
+        }
+        this.logScaled = logScaled;
+        this.mean = mean;
+        this.inverseStd = inverseStd;
+        this.weights = weights;
+        this.weightScale = weightScale;
+        this.bias = bias;
+    }
+
+    @Override
+    public float classify(float[] features) {
+        float sum = 0f;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] == 0) {
+                continue;
+            }
+            float value = features[i];
+            if (logScaled[i]) {
+                value = (float) Math.log10(Math.max(value, LOG_FLOOR));
+            }
+            sum += weights[i] * ((value - mean[i]) * inverseStd[i]);
+        }
+        float logit = sum * weightScale + bias;
+        return (float) (1.0 / (1.0 + Math.exp(-logit)));
+    }
+}
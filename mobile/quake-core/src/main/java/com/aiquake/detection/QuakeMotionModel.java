@@ -0,0 +1,60 @@
+package com.aiquake.detection;
+
+/**
+ * Parameters of the default quake-vs-human-motion classifier, in
+ * {@link FeatureVector} order.
+ *
+ * These are a hand-tuned prior, not the output of a training run: no labelled
+ * recordings exist yet. The means and inverse standard deviations are rough
+ * centres and spreads of each feature for a phone lying on a table, and each
+ * weight encodes one well-known difference between ground motion (sustained,
+ * mostly horizontal, 1-5 Hz) and human motion (short, vertical, impulsive,
+ * 10 Hz and up). Replace the arrays with fitted values once
+ * {@code ReplayRunner} has labelled traces to train on.
+ */
+public final class QuakeMotionModel {
+    static final boolean[] LOG_SCALED = {
+        true,  // MAGNITUDE_SQUARED
+        true,  // HORIZONTAL_ENERGY
+        true,  // VERTICAL_ENERGY
+        false, // HORIZONTAL_RATIO
+        true,  // PGA_SQUARED
+        true,  // JERK_SQUARED
+        false, // DOMINANT_FREQUENCY
+        false, // GROUND_BAND_RATIO
+        false  // HIGH_BAND_RATIO
+    };
+
+    // Centre of each feature: 0.01 (m/s²)² energies, an even horizontal share,
+    // 0.18 m/s² peaks, 3 m/s³ jerks, 5 Hz, and the band shares of broadband noise
+    static final float[] MEAN = {-2.0f, -2.0f, -2.0f, 0.5f, -1.5f, 1.0f, 5.0f, 0.3f, 0.2f};
+
+    // Spread of each feature: two decades for the log-scaled accelerations,
+    // 0.2-0.25 for the shares and 5 Hz for the frequency
+    static final float[] INVERSE_STD = {0.5f, 0.5f, 0.5f, 4.0f, 0.5f, 0.5f, 0.2f, 4.0f, 5.0f};
+
+    static final byte[] WEIGHTS = {
+        0,   // MAGNITUDE_SQUARED: one sample, already judged by the trigger
+        8,   // HORIZONTAL_ENERGY: S waves shake mostly horizontally, a slight push
+        -8,  // VERTICAL_ENERGY: the mirror of the horizontal push
+        96,  // HORIZONTAL_RATIO: strongest cue, footsteps and taps load the vertical axis
+        16,  // PGA_SQUARED: stronger shaking is more likely to be real, kept small
+             // because dropping or knocking the phone is strong as well
+        -32, // JERK_SQUARED: impacts change acceleration far faster than ground motion
+        -16, // DOMINANT_FREQUENCY: ground motion felt indoors peaks at a few Hz
+        48,  // GROUND_BAND_RATIO: energy concentrated in the 1-5 Hz band
+        -80  // HIGH_BAND_RATIO: handling and impacts put most energy above 10 Hz
+    };
+
+    static final float WEIGHT_SCALE = 1f / 32;
+
+    // Average features score 27% so only motion with several quake cues passes
+    static final float BIAS = -1.0f;
+
+    private QuakeMotionModel() {
+    }
+
+    public static EventClassifier create() {
+        return new LogisticRegressionClassifier(LOG_SCALED, MEAN, INVERSE_STD, WEIGHTS, WEIGHT_SCALE, BIAS);
+    }
+}
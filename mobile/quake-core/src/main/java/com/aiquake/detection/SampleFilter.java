@@ -0,0 +1,31 @@
+package com.aiquake.detection;
+
+/**
+ * First pipeline stage: conditions the accelerometer axes in place before
+ * features are extracted.
+ */
+public interface SampleFilter {
+    /**
+     * Filter that leaves the samples untouched
+     */
+    SampleFilter NONE = new SampleFilter() {
+        @Override
+        public boolean apply(DetectionFrame frame) {
+            return false;
+        }
+
+        @Override
+        public void reset() {
+        }
+    };
+
+    /**
+     * Read the current axes from the frame and write the filtered values back
+     * with {@link DetectionFrame#setFiltered(float, float, float)}
+     * @return true if the filter switched to another sampling rate with this
+     *         frame, so windows of earlier samples no longer share one rate
+     */
+    boolean apply(DetectionFrame frame);
+
+    void reset();
+}
@@ -0,0 +1,87 @@
+package com.aiquake.detection;
+
+/**
+ * Decides how fast the accelerometer should be sampled.
+ *
+ * The governor stays at a low rate while the trigger level is low, escalates
+ * to the configured high rate as soon as pre-trigger energy rises, and steps
+ * back down once the signal has been quiet for the hold-off period.
+ */
+public class SamplingGovernor {
+    public static final int MIN_RATE_HZ = 5;
+    public static final int LOW_RATE_DIVISOR = 5; // Quiet rate as a fraction of the high rate
+
+    private int highRateHz;
+    private int lowRateHz;
+    private float escalationLevel;
+    private long holdOffNanos;
+
+    private boolean highRate = false;
+    private long lastActivityNanos;
+
+    /**
+     * @param samplingRateHz Rate used while shaking is suspected
+     * @param sensitivityLevel 0 (least sensitive) to 1 (most sensitive)
+     * @param holdOffSeconds Quiet time before stepping back down to the low rate
+     */
+    public SamplingGovernor(int samplingRateHz, float sensitivityLevel, int holdOffSeconds) {
+        configure(samplingRateHz, sensitivityLevel, holdOffSeconds);
+    }
+
+    /**
+     * Apply new detection settings, keeping the current rate decision
+     */
+    public void configure(int samplingRateHz, float sensitivityLevel, int holdOffSeconds) {
+        this.highRateHz = Math.max(MIN_RATE_HZ, samplingRateHz);
+        this.lowRateHz = Math.max(MIN_RATE_HZ, highRateHz / LOW_RATE_DIVISOR);
+        // A more sensitive setting escalates at a smaller fraction of the trigger threshold
+        float sensitivity = Math.max(0f, Math.min(1f, sensitivityLevel));
+        this.escalationLevel = Math.max(0.1f, Math.min(0.9f, 1f - sensitivity));
+        this.holdOffNanos = Math.max(0, holdOffSeconds) * 1_000_000_000L;
+    }
+
+    /**
+     * Feed the latest pipeline frame
+     * @return true if the rate decision changed and the sensor must be re-registered
+     */
+    public boolean update(DetectionFrame frame) {
+        long timestampNanos = frame.getTimestampNanos();
+        boolean active = frame.isTriggered() || frame.getTriggerLevel() >= escalationLevel;
+
+        if (active) {
+            lastActivityNanos = timestampNanos;
+            if (!highRate) {
+                highRate = true;
+                return true;
+            }
+        } else if (highRate && timestampNanos - lastActivityNanos > holdOffNanos) {
+            highRate = false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Escalate without a frame, e.g. on a significant motion event
+     */
+    public void escalate(long timestampNanos) {
+        highRate = true;
+        lastActivityNanos = timestampNanos;
+    }
+
+    public boolean isHighRate() {
+        return highRate;
+    }
+
+    public int getHighRateHz() {
+        return highRateHz;
+    }
+
+    public int getLowRateHz() {
+        return lowRateHz;
+    }
+
+    public int getSamplingPeriodUs() {
+        return 1_000_000 / (highRate ? highRateHz : lowRateHz);
+    }
+}
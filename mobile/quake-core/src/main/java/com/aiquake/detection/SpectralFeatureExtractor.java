@@ -0,0 +1,160 @@
+package com.aiquake.detection;
+
+import com.aiquake.utils.Fft;
+
+/**
+ * Adds the frequency view of the motion to the {@link FeatureVector}: the
+ * dominant frequency and the share of the energy in the ground motion band
+ * (1-5 Hz) and in the handling band (10 Hz and above).
+ *
+ * It works on the gravity free but otherwise unfiltered acceleration, since
+ * the band-pass of the filter stage would hide exactly the high frequencies
+ * that give handling away. The last window of samples is kept in ring
+ * buffers and a spectrum is only computed every {@code hopSize} samples, so
+ * the cost per sample stays bounded. Between two spectra the frame carries
+ * the previous values.
+ */
+public class SpectralFeatureExtractor implements FeatureExtractor {
+    public static final int DEFAULT_FFT_SIZE = 128;
+    public static final int DEFAULT_HOP_SIZE = 32;
+
+    static final float GROUND_BAND_LOW_HZ = 1.0f;
+    static final float GROUND_BAND_HIGH_HZ = 5.0f;
+    static final float HIGH_BAND_LOW_HZ = 10.0f;
+
+    private final Fft fft;
+    private final int size;
+    private final int hopSize;
+    private final float[] hannWindow;
+
+    // Last samples of the three axes and their timestamps, written circularly
+    private final float[] historyX;
+    private final float[] historyY;
+    private final float[] historyZ;
+    private final long[] historyTimestamps;
+    private int writeIndex;
+    private int count;
+    private int samplesSinceSpectrum;
+
+    // Transform buffers, reused for every spectrum
+    private final float[] re;
+    private final float[] im;
+    private final float[] power; // Per bin power of the three axes, 1..N/2
+
+    private float dominantFrequency;
+    private float groundBandRatio;
+    private float highBandRatio;
+
+    public SpectralFeatureExtractor() {
+        this(DEFAULT_FFT_SIZE, DEFAULT_HOP_SIZE);
+    }
+
+    /**
+     * @param fftSize Window length in samples, a power of two
+     * @param hopSize Samples between two spectra
+     */
+    public SpectralFeatureExtractor(int fftSize, int hopSize) {
+        if (hopSize < 1 || hopSize > fftSize) {
+            throw new IllegalArgumentException("Hop size must be between 1 and the FFT size");
+        }
+        this.fft = new Fft(fftSize);
+        this.size = fftSize;
+        this.hopSize = hopSize;
+        this.hannWindow = new float[fftSize];
+        for (int i = 0; i < fftSize; i++) {
+            hannWindow[i] = (float) (0.5 - 0.5 * Math.cos(2 * Math.PI * i / (fftSize - 1)));
+        }
+        this.historyX = new float[fftSize];
+        this.historyY = new float[fftSize];
+        this.historyZ = new float[fftSize];
+        this.historyTimestamps = new long[fftSize];
+        this.re = new float[fftSize];
+        this.im = new float[fftSize];
+        this.power = new float[fftSize / 2 + 1];
+    }
+
+    @Override
+    public void extract(DetectionFrame frame) {
+        historyX[writeIndex] = frame.getRawX() - frame.getGravityX();
+        historyY[writeIndex] = frame.getRawY() - frame.getGravityY();
+        historyZ[writeIndex] = frame.getRawZ() - frame.getGravityZ();
+        historyTimestamps[writeIndex] = frame.getTimestampNanos();
+        writeIndex = (writeIndex + 1) % size;
+        if (count < size) {
+            count++;
+        }
+
+        if (++samplesSinceSpectrum >= hopSize && count == size) {
+            samplesSinceSpectrum = 0;
+            computeSpectrum();
+        }
+
+        frame.setFeature(FeatureVector.DOMINANT_FREQUENCY, dominantFrequency);
+        frame.setFeature(FeatureVector.GROUND_BAND_RATIO, groundBandRatio);
+        frame.setFeature(FeatureVector.HIGH_BAND_RATIO, highBandRatio);
+    }
+
+    private void computeSpectrum() {
+        // writeIndex now points at the oldest sample
+        long spanNanos = historyTimestamps[(writeIndex + size - 1) % size] - historyTimestamps[writeIndex];
+        if (spanNanos <= 0) {
+            return;
+        }
+        float binHz = (size - 1) * 1e9f / spanNanos / size;
+        int half = size / 2;
+
+        // x and y share one complex transform: for Z = X + iY the power of x plus y
+        // in bin k is (|Z[k]|² + |Z[N-k]|²) / 2
+        for (int i = 0; i < size; i++) {
+            int index = (writeIndex + i) % size;
+            re[i] = historyX[index] * hannWindow[i];
+            im[i] = historyY[index] * hannWindow[i];
+        }
+        fft.transform(re, im);
+        for (int k = 1; k <= half; k++) {
+            int mirror = size - k;
+            power[k] = (re[k] * re[k] + im[k] * im[k] + re[mirror] * re[mirror] + im[mirror] * im[mirror]) / 2;
+        }
+
+        for (int i = 0; i < size; i++) {
+            re[i] = historyZ[(writeIndex + i) % size] * hannWindow[i];
+            im[i] = 0f;
+        }
+        fft.transform(re, im);
+
+        float totalEnergy = 0f;
+        float groundEnergy = 0f;
+        float highEnergy = 0f;
+        float peakPower = 0f;
+        int peakBin = 0;
+        // Bin 0 is skipped, gravity was removed and any offset left is not motion
+        for (int k = 1; k <= half; k++) {
+            float binPower = power[k] + re[k] * re[k] + im[k] * im[k];
+            float frequency = k * binHz;
+            totalEnergy += binPower;
+            if (frequency >= GROUND_BAND_LOW_HZ && frequency <= GROUND_BAND_HIGH_HZ) {
+                groundEnergy += binPower;
+            } else if (frequency >= HIGH_BAND_LOW_HZ) {
+                highEnergy += binPower;
+            }
+            if (binPower > peakPower) {
+                peakPower = binPower;
+                peakBin = k;
+            }
+        }
+
+        dominantFrequency = peakBin * binHz;
+        groundBandRatio = totalEnergy > 0f ? groundEnergy / totalEnergy : 0f;
+        highBandRatio = totalEnergy > 0f ? highEnergy / totalEnergy : 0f;
+    }
+
+    @Override
+    public void reset() {
+        writeIndex = 0;
+        count = 0;
+        samplesSinceSpectrum = 0;
+        dominantFrequency = 0f;
+        groundBandRatio = 0f;
+        highBandRatio = 0f;
+    }
+}
@@ -0,0 +1,14 @@
+package com.aiquake.detection;
+
+/**
+ * Third pipeline stage: decides from the extracted features whether the
+ * current sample looks like an earthquake.
+ */
+public interface TriggerDetector {
+    /**
+     * @return true while the detector considers the signal to be an earthquake
+     */
+    boolean update(DetectionFrame frame);
+
+    void reset();
+}
@@ -0,0 +1,53 @@
+package com.aiquake.detection.filter;
+
+/**
+ * Normalised coefficients of a second-order IIR section (a0 = 1).
+ *
+ * Designed with the bilinear transform formulas from the RBJ audio EQ
+ * cookbook, using a Butterworth Q so each section has a maximally flat
+ * pass band.
+ */
+public final class BiquadCoefficients {
+    private static final double BUTTERWORTH_Q = 0.7071067811865476; // 1 / sqrt(2)
+
+    final float b0;
+    final float b1;
+    final float b2;
+    final float a1;
+    final float a2;
+
+    private BiquadCoefficients(double b0, double b1, double b2, double a0, double a1, double a2) {
+        this.b0 = (float) (b0 / a0);
+        this.b1 = (float) (b1 / a0);
+        this.b2 = (float) (b2 / a0);
+        this.a1 = (float) (a1 / a0);
+        this.a2 = (float) (a2 / a0);
+    }
+
+    public static BiquadCoefficients lowPass(double cutoffHz, double sampleRateHz) {
+        double w0 = 2 * Math.PI * cutoffHz / sampleRateHz;
+        double cos = Math.cos(w0);
+        double alpha = Math.sin(w0) / (2 * BUTTERWORTH_Q);
+        return new BiquadCoefficients(
+            (1 - cos) / 2, 1 - cos, (1 - cos) / 2,
+            1 + alpha, -2 * cos, 1 - alpha
+        );
+    }
+
+    public static BiquadCoefficients highPass(double cutoffHz, double sampleRateHz) {
+        double w0 = 2 * Math.PI * cutoffHz / sampleRateHz;
+        double cos = Math.cos(w0);
+        double alpha = Math.sin(w0) / (2 * BUTTERWORTH_Q);
+        return new BiquadCoefficients(
+            (1 + cos) / 2, -(1 + cos), (1 + cos) / 2,
+            1 + alpha, -2 * cos, 1 - alpha
+        );
+    }
+
+    /**
+     * Gain of the section for a constant input
+     */
+    float dcGain() {
+        return (b0 + b1 + b2) / (1 + a1 + a2);
+    }
+}
@@ -0,0 +1,71 @@
+package com.aiquake.detection.filter;
+
+/**
+ * Second-order IIR section applied independently to several channels.
+ *
+ * Uses the transposed direct form II, which needs two state values per
+ * channel and keeps good numerical behaviour in single precision. State lives
+ * in primitive arrays allocated once, so filtering never allocates.
+ */
+public class BiquadFilter {
+    private final float[] z1;
+    private final float[] z2;
+    private BiquadCoefficients coefficients;
+
+    public BiquadFilter(int channels, BiquadCoefficients coefficients) {
+        this.z1 = new float[channels];
+        this.z2 = new float[channels];
+        this.coefficients = coefficients;
+    }
+
+    /**
+     * Swap coefficients (e.g. after a sampling rate change) while keeping the state
+     */
+    public void setCoefficients(BiquadCoefficients coefficients) {
+        this.coefficients = coefficients;
+    }
+
+    public float process(int channel, float input) {
+        BiquadCoefficients c = coefficients;
+        float output = c.b0 * input + z1[channel];
+        z1[channel] = c.b1 * input - c.a1 * output + z2[channel];
+        z2[channel] = c.b2 * input - c.a2 * output;
+        return output;
+    }
+
+    /**
+     * Filter a block of samples of one channel in place
+     */
+    public void process(int channel, float[] samples, int offset, int length) {
+        BiquadCoefficients c = coefficients;
+        float s1 = z1[channel];
+        float s2 = z2[channel];
+        for (int i = offset, end = offset + length; i < end; i++) {
+            float input = samples[i];
+            float output = c.b0 * input + s1;
+            s1 = c.b1 * input - c.a1 * output + s2;
+            s2 = c.b2 * input - c.a2 * output;
+            samples[i] = output;
+        }
+        z1[channel] = s1;
+        z2[channel] = s2;
+    }
+
+    /**
+     * Set the state of a channel as if the input had been constant forever,
+     * which avoids a start-up transient (e.g. gravity hitting a high-pass filter)
+     */
+    public void prime(int channel, float input) {
+        BiquadCoefficients c = coefficients;
+        float output = input * c.dcGain();
+        z2[channel] = c.b2 * input - c.a2 * output;
+        z1[channel] = c.b1 * input - c.a1 * output + z2[channel];
+    }
+
+    public void reset() {
+        for (int i = 0; i < z1.length; i++) {
+            z1[i] = 0f;
+            z2[i] = 0f;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.aiquake.detection.filter;
+
+import com.aiquake.detection.DetectionFrame;
+import com.aiquake.detection.SampleFilter;
+
+/**
+ * Filter stage that removes gravity and limits the axes to the seismic band.
+ *
+ * Each axis goes through a high-pass section that removes gravity and sensor
+ * offset, then through a high-pass / low-pass pair forming the 1-10 Hz band
+ * pass. The gravity estimate (raw minus high-passed value) is kept on the
+ * frame for orientation dependent features.
+ *
+ * Coefficients are computed once per supported sampling rate when the class
+ * is loaded. The rate is estimated from the sample timestamps, and the nearest
+ * coefficient set is swapped in when the sensor rate changes. {@link #apply}
+ * reports the swap so the pipeline can drop windows that mix two rates.
+ */
+public class FilterBank implements SampleFilter {
+    public static final float GRAVITY_CUTOFF_HZ = 0.2f;
+    public static final float BAND_LOW_HZ = 1.0f;
+    public static final float BAND_HIGH_HZ = 10.0f;
+
+    // Rates the coefficient table is built for, covers the sampling governor range
+    static final int[] SAMPLING_RATES_HZ = {5, 10, 20, 25, 50, 100, 200};
+    private static final int DEFAULT_RATE_INDEX = 5; // 100 Hz
+    // Highest usable cutoff as a fraction of the sampling rate, below Nyquist
+    private static final float MAX_CUTOFF_RATIO = 0.4f;
+    private static final int AXES = 3;
+
+    private static final BiquadCoefficients[] GRAVITY_HIGH_PASS = new BiquadCoefficients[SAMPLING_RATES_HZ.length];
+    private static final BiquadCoefficients[] BAND_HIGH_PASS = new BiquadCoefficients[SAMPLING_RATES_HZ.length];
+    private static final BiquadCoefficients[] BAND_LOW_PASS = new BiquadCoefficients[SAMPLING_RATES_HZ.length];
+    // Geometric midpoints between neighbouring rates, 15 Hz is as far from 10 Hz as 30 Hz from 20 Hz
+    private static final float[] RATE_BOUNDARIES_HZ = new float[SAMPLING_RATES_HZ.length - 1];
+
+    static {
+        for (int i = 0; i < SAMPLING_RATES_HZ.length; i++) {
+            int rate = SAMPLING_RATES_HZ[i];
+            float maxCutoff = rate * MAX_CUTOFF_RATIO;
+            float highCutoff = Math.min(BAND_HIGH_HZ, maxCutoff);
+            // At very low rates the band shrinks, keep the high-pass below the low-pass
+            float lowCutoff = Math.min(BAND_LOW_HZ, highCutoff / 2);
+            GRAVITY_HIGH_PASS[i] = BiquadCoefficients.highPass(GRAVITY_CUTOFF_HZ, rate);
+            BAND_HIGH_PASS[i] = BiquadCoefficients.highPass(lowCutoff, rate);
+            BAND_LOW_PASS[i] = BiquadCoefficients.lowPass(highCutoff, rate);
+            if (i > 0) {
+                RATE_BOUNDARIES_HZ[i - 1] = (float) Math.sqrt(SAMPLING_RATES_HZ[i - 1] * rate);
+            }
+        }
+    }
+
+    private final BiquadFilter gravityHighPass;
+    private final BiquadFilter bandHighPass;
+    private final BiquadFilter bandLowPass;
+    private int rateIndex = DEFAULT_RATE_INDEX;
+    private long lastTimestampNanos;
+    private float averageIntervalNanos;
+    private boolean initialized;
+
+    public FilterBank() {
+        gravityHighPass = new BiquadFilter(AXES, GRAVITY_HIGH_PASS[rateIndex]);
+        bandHighPass = new BiquadFilter(AXES, BAND_HIGH_PASS[rateIndex]);
+        bandLowPass = new BiquadFilter(AXES, BAND_LOW_PASS[rateIndex]);
+    }
+
+    @Override
+    public boolean apply(DetectionFrame frame) {
+        float x = frame.getX();
+        float y = frame.getY();
+        float z = frame.getZ();
+
+        boolean rateChanged = false;
+        if (!initialized) {
+            // Start in the steady state for the current orientation instead of
+            // ringing for several seconds while the filters settle on gravity
+            gravityHighPass.prime(0, x);
+            gravityHighPass.prime(1, y);
+            gravityHighPass.prime(2, z);
+            lastTimestampNanos = frame.getTimestampNanos();
+            initialized = true;
+        } else {
+            rateChanged = updateSamplingRate(frame.getTimestampNanos());
+        }
+
+        float linearX = gravityHighPass.process(0, x);
+        float linearY = gravityHighPass.process(1, y);
+        float linearZ = gravityHighPass.process(2, z);
+        frame.setGravity(x - linearX, y - linearY, z - linearZ);
+
+        frame.setFiltered(
+            bandLowPass.process(0, bandHighPass.process(0, linearX)),
+            bandLowPass.process(1, bandHighPass.process(1, linearY)),
+            bandLowPass.process(2, bandHighPass.process(2, linearZ))
+        );
+        return rateChanged;
+    }
+
+    /**
+     * Sampling rate the current coefficients were designed for
+     */
+    public int getSamplingRateHz() {
+        return SAMPLING_RATES_HZ[rateIndex];
+    }
+
+    // Returns true if a different coefficient set was swapped in
+    private boolean updateSamplingRate(long timestampNanos) {
+        long interval = timestampNanos - lastTimestampNanos;
+        lastTimestampNanos = timestampNanos;
+        if (interval <= 0) {
+            return false;
+        }
+        // Smooth the interval so sensor jitter does not flip between coefficient sets
+        averageIntervalNanos = averageIntervalNanos == 0f
+            ? interval
+            : averageIntervalNanos + 0.05f * (interval - averageIntervalNanos);
+
+        int nearest = nearestRateIndex(1e9f / averageIntervalNanos);
+        if (nearest == rateIndex) {
+            return false;
+        }
+        rateIndex = nearest;
+        gravityHighPass.setCoefficients(GRAVITY_HIGH_PASS[nearest]);
+        bandHighPass.setCoefficients(BAND_HIGH_PASS[nearest]);
+        bandLowPass.setCoefficients(BAND_LOW_PASS[nearest]);
+        return true;
+    }
+
+    static int nearestRateIndex(float rateHz) {
+        int index = 0;
+        while (index < RATE_BOUNDARIES_HZ.length && rateHz >= RATE_BOUNDARIES_HZ[index]) {
+            index++;
+        }
+        return index;
+    }
+
+    @Override
+    public void reset() {
+        gravityHighPass.reset();
+        bandHighPass.reset();
+        bandLowPass.reset();
+        rateIndex = DEFAULT_RATE_INDEX;
+        gravityHighPass.setCoefficients(GRAVITY_HIGH_PASS[rateIndex]);
+        bandHighPass.setCoefficients(BAND_HIGH_PASS[rateIndex]);
+        bandLowPass.setCoefficients(BAND_LOW_PASS[rateIndex]);
+        lastTimestampNanos = 0;
+        averageIntervalNanos = 0f;
+        initialized = false;
+    }
+}
@@ -0,0 +1,101 @@
+package com.aiquake.detection.replay;
+
+import java.util.Locale;
+
+/**
+ * Outcome of replaying one {@link SensorTrace} through a detection pipeline.
+ *
+ * Earthquakes are the runs of consecutive labelled samples in the trace. A
+ * detection during an earthquake (or shortly after its last labelled sample)
+ * counts as a true detection, any other detection as a false trigger.
+ */
+public class ReplayResult {
+    private final int samples;
+    private final boolean labelled;
+    private final int detections;
+    private final int trueDetections;
+    private final int falseTriggers;
+    private final int earthquakes;
+    private final int missedEarthquakes;
+    private final long totalDetectionLatencyNanos;
+    private final long processingNanos;
+    private final long traceDurationNanos;
+
+    ReplayResult(int samples, boolean labelled, int detections, int trueDetections, int falseTriggers,
+                 int earthquakes, int missedEarthquakes, long totalDetectionLatencyNanos,
+                 long processingNanos, long traceDurationNanos) {
+        this.samples = samples;
+        this.labelled = labelled;
+        this.detections = detections;
+        this.trueDetections = trueDetections;
+        this.falseTriggers = falseTriggers;
+        this.earthquakes = earthquakes;
+        this.missedEarthquakes = missedEarthquakes;
+        this.totalDetectionLatencyNanos = totalDetectionLatencyNanos;
+        this.processingNanos = processingNanos;
+        this.traceDurationNanos = traceDurationNanos;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * False if the trace had no labels, in which case only the detection count is meaningful
+     */
+    public boolean isLabelled() {
+        return labelled;
+    }
+
+    public int getDetections() {
+        return detections;
+    }
+
+    public int getTrueDetections() {
+        return trueDetections;
+    }
+
+    public int getFalseTriggers() {
+        return falseTriggers;
+    }
+
+    public int getEarthquakes() {
+        return earthquakes;
+    }
+
+    public int getMissedEarthquakes() {
+        return missedEarthquakes;
+    }
+
+    /**
+     * Mean time from the first labelled sample of an earthquake to its first detection
+     */
+    public double getMeanDetectionLatencyMillis() {
+        int detected = earthquakes - missedEarthquakes;
+        return detected == 0 ? 0 : totalDetectionLatencyNanos / 1e6 / detected;
+    }
+
+    public double getNanosPerSample() {
+        return samples == 0 ? 0 : (double) processingNanos / samples;
+    }
+
+    /**
+     * How many times faster than real time the trace was processed
+     */
+    public double getSpeedup() {
+        return processingNanos == 0 ? 0 : (double) traceDurationNanos / processingNanos;
+    }
+
+    @Override
+    public String toString() {
+        if (!labelled) {
+            return String.format(Locale.US, "samples=%d detections=%d cost=%.1f ns/sample speedup=%.0fx",
+                samples, detections, getNanosPerSample(), getSpeedup());
+        }
+        return String.format(Locale.US,
+            "samples=%d earthquakes=%d detected=%d missed=%d falseTriggers=%d latency=%.0f ms "
+                + "cost=%.1f ns/sample speedup=%.0fx",
+            samples, earthquakes, earthquakes - missedEarthquakes, missedEarthquakes, falseTriggers,
+            getMeanDetectionLatencyMillis(), getNanosPerSample(), getSpeedup());
+    }
+}
@@ -0,0 +1,148 @@
+package com.aiquake.detection.replay;
+
+import com.aiquake.detection.DetectionPipeline;
+
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Streams recorded traces through a {@link DetectionPipeline} as fast as the
+ * CPU allows, so detection tuning can be regression-tested and timed on a
+ * desktop JVM without a phone.
+ *
+ * The pipeline is reset before every pass, which makes replays deterministic:
+ * the same trace and pipeline configuration always give the same detections.
+ */
+public class ReplayRunner {
+    public static final long DEFAULT_MATCH_TOLERANCE_MILLIS = 5000;
+    public static final int DEFAULT_WARM_UP_PASSES = 2;
+
+    private final long matchToleranceNanos;
+    private final int warmUpPasses;
+
+    public ReplayRunner() {
+        this(DEFAULT_MATCH_TOLERANCE_MILLIS, DEFAULT_WARM_UP_PASSES);
+    }
+
+    /**
+     * @param matchToleranceMillis How long after the last labelled sample of an earthquake
+     *                             a detection still counts for it
+     * @param warmUpPasses Untimed passes over the trace before the measured one, so the JIT
+     *                     has compiled the pipeline
+     */
+    public ReplayRunner(long matchToleranceMillis, int warmUpPasses) {
+        this.matchToleranceNanos = matchToleranceMillis * 1_000_000L;
+        this.warmUpPasses = warmUpPasses;
+    }
+
+    public ReplayResult run(DetectionPipeline pipeline, SensorTrace trace) {
+        int size = trace.size();
+        for (int pass = 0; pass < warmUpPasses; pass++) {
+            pipeline.reset();
+            for (int i = 0; i < size; i++) {
+                pipeline.process(trace.getTimestamp(i), trace.getX(i), trace.getY(i), trace.getZ(i));
+            }
+        }
+
+        // Timed pass: only record which samples produced a detection, scoring happens afterwards
+        boolean[] detected = new boolean[size];
+        pipeline.reset();
+        long start = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            detected[i] = pipeline.process(trace.getTimestamp(i), trace.getX(i), trace.getY(i), trace.getZ(i));
+        }
+        long processingNanos = System.nanoTime() - start;
+
+        return score(trace, detected, processingNanos);
+    }
+
+    private ReplayResult score(SensorTrace trace, boolean[] detected, long processingNanos) {
+        int size = trace.size();
+        boolean labelled = trace.isLabelled();
+        int detections = 0;
+        int trueDetections = 0;
+        int falseTriggers = 0;
+        int earthquakes = 0;
+        int missed = 0;
+        long totalLatencyNanos = 0;
+
+        // Current (or most recent) labelled earthquake
+        boolean inEarthquake = false;
+        boolean earthquakeDetected = false;
+        long earthquakeStartNanos = 0;
+        long earthquakeEndNanos = Long.MIN_VALUE;
+
+        for (int i = 0; i < size; i++) {
+            long timestamp = trace.getTimestamp(i);
+            if (labelled) {
+                boolean earthquake = trace.isEarthquake(i);
+                if (earthquake && !inEarthquake) {
+                    if (earthquakes > 0 && !earthquakeDetected) {
+                        missed++;
+                    }
+                    earthquakes++;
+                    earthquakeDetected = false;
+                    earthquakeStartNanos = timestamp;
+                }
+                if (earthquake) {
+                    earthquakeEndNanos = timestamp;
+                }
+                inEarthquake = earthquake;
+            }
+
+            if (!detected[i]) {
+                continue;
+            }
+            detections++;
+            if (!labelled) {
+                continue;
+            }
+            boolean matches = earthquakes > 0
+                && (inEarthquake || timestamp - earthquakeEndNanos <= matchToleranceNanos);
+            if (matches) {
+                trueDetections++;
+                if (!earthquakeDetected) {
+                    earthquakeDetected = true;
+                    totalLatencyNanos += timestamp - earthquakeStartNanos;
+                }
+            } else {
+                falseTriggers++;
+            }
+        }
+        if (earthquakes > 0 && !earthquakeDetected) {
+            missed++;
+        }
+
+        long durationNanos = size > 1 ? trace.getTimestamp(size - 1) - trace.getTimestamp(0) : 0;
+        return new ReplayResult(size, labelled, detections, trueDetections, falseTriggers,
+            earthquakes, missed, totalLatencyNanos, processingNanos, durationNanos);
+    }
+
+    /**
+     * Replays each trace file through the default pipeline and prints the results.
+     * Files ending in .csv are read as CSV, anything else as a binary trace.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayRunner <trace.csv|trace.bin>...");
+            System.exit(1);
+        }
+        ReplayRunner runner = new ReplayRunner();
+        for (String path : args) {
+            SensorTrace trace;
+            if (path.endsWith(".csv")) {
+                try (Reader reader = new FileReader(path)) {
+                    trace = SensorTrace.readCsv(reader);
+                }
+            } else {
+                try (InputStream input = new FileInputStream(path)) {
+                    trace = SensorTrace.readBinary(input);
+                }
+            }
+            System.out.println(path + ": " + runner.run(DetectionPipeline.createDefault(), trace));
+        }
+    }
+}
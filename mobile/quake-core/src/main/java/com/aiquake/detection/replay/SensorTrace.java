@@ -0,0 +1,207 @@
+package com.aiquake.detection.replay;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Recorded accelerometer samples held in primitive arrays, optionally labelled
+ * with whether the sample belongs to an earthquake.
+ *
+ * Two formats are supported:
+ * <ul>
+ *     <li>CSV: one {@code timestampNanos,x,y,z[,label]} line per sample, where
+ *     label is 1 for earthquake and 0 otherwise. Empty lines, lines starting
+ *     with {@code #} and a header line are skipped.</li>
+ *     <li>Binary: the {@link #BINARY_MAGIC} int, the sample count, a flag for
+ *     labels, then per sample a long timestamp, three floats and, if labelled,
+ *     a label byte. All values are big endian as written by DataOutputStream.</li>
+ * </ul>
+ */
+public class SensorTrace {
+    public static final int BINARY_MAGIC = 0x51545243; // "QTRC"
+
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int RECORD_BYTES = 8 + 3 * 4; // Timestamp and three axes, plus a label byte if labelled
+
+    private long[] timestamps;
+    private float[] x;
+    private float[] y;
+    private float[] z;
+    private boolean[] labels;
+    private boolean labelled;
+    private int size;
+
+    public SensorTrace() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public SensorTrace(int capacity) {
+        timestamps = new long[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        z = new float[capacity];
+        labels = new boolean[capacity];
+    }
+
+    public void add(long timestampNanos, float x, float y, float z) {
+        add(timestampNanos, x, y, z, false);
+    }
+
+    public void add(long timestampNanos, float sampleX, float sampleY, float sampleZ, boolean earthquake) {
+        if (size == timestamps.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            z = Arrays.copyOf(z, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+        }
+        timestamps[size] = timestampNanos;
+        x[size] = sampleX;
+        y[size] = sampleY;
+        z[size] = sampleZ;
+        labels[size] = earthquake;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * True if the samples carry earthquake labels, so detections can be scored
+     */
+    public boolean isLabelled() {
+        return labelled;
+    }
+
+    public void setLabelled(boolean labelled) {
+        this.labelled = labelled;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return y[index];
+    }
+
+    public float getZ(int index) {
+        return z[index];
+    }
+
+    public boolean isEarthquake(int index) {
+        return labels[index];
+    }
+
+    public static SensorTrace readCsv(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader
+            ? (BufferedReader) reader
+            : new BufferedReader(reader);
+        SensorTrace trace = new SensorTrace();
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length < 4) {
+                throw new IOException("Line " + lineNumber + ": expected timestamp,x,y,z[,label]");
+            }
+            try {
+                long timestamp = Long.parseLong(fields[0].trim());
+                float sampleX = Float.parseFloat(fields[1].trim());
+                float sampleY = Float.parseFloat(fields[2].trim());
+                float sampleZ = Float.parseFloat(fields[3].trim());
+                boolean hasLabel = fields.length > 4;
+                boolean earthquake = hasLabel && Integer.parseInt(fields[4].trim()) != 0;
+                trace.add(timestamp, sampleX, sampleY, sampleZ, earthquake);
+                trace.labelled |= hasLabel;
+            } catch (NumberFormatException e) {
+                if (trace.size == 0) {
+                    // Header line
+                    continue;
+                }
+                throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return trace;
+    }
+
+    /**
+     * @throws IOException if the stream is not a sensor trace, or holds fewer samples than its header claims
+     */
+    public static SensorTrace readBinary(InputStream input) throws IOException {
+        DataInputStream data = new DataInputStream(input);
+        if (data.readInt() != BINARY_MAGIC) {
+            throw new IOException("Not a sensor trace");
+        }
+        int count = data.readInt();
+        boolean hasLabels = data.readBoolean();
+        if (count < 0) {
+            throw new IOException("Invalid sample count " + count);
+        }
+        // Read the samples before sizing the arrays, so a corrupt count cannot allocate more than the stream holds
+        byte[] samples = readRemaining(data);
+        long expectedBytes = (long) count * (hasLabels ? RECORD_BYTES + 1 : RECORD_BYTES);
+        if (expectedBytes > samples.length) {
+            throw new IOException("Truncated sensor trace: " + count + " samples need " + expectedBytes
+                + " bytes, got " + samples.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(samples); // Big endian, like DataOutputStream
+        SensorTrace trace = new SensorTrace(Math.max(1, count));
+        for (int i = 0; i < count; i++) {
+            long timestamp = buffer.getLong();
+            float sampleX = buffer.getFloat();
+            float sampleY = buffer.getFloat();
+            float sampleZ = buffer.getFloat();
+            boolean earthquake = hasLabels && buffer.get() != 0;
+            trace.add(timestamp, sampleX, sampleY, sampleZ, earthquake);
+        }
+        trace.labelled = hasLabels;
+        return trace;
+    }
+
+    public void writeBinary(OutputStream output) throws IOException {
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(BINARY_MAGIC);
+        data.writeInt(size);
+        data.writeBoolean(labelled);
+        for (int i = 0; i < size; i++) {
+            data.writeLong(timestamps[i]);
+            data.writeFloat(x[i]);
+            data.writeFloat(y[i]);
+            data.writeFloat(z[i]);
+            if (labelled) {
+                data.writeByte(labels[i] ? 1 : 0);
+            }
+        }
+        data.flush();
+    }
+
+    private static byte[] readRemaining(InputStream input) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+}
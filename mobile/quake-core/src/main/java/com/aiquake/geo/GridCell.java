@@ -0,0 +1,70 @@
+package com.aiquake.geo;
+
+/**
+ * Packs a position into the index of a fixed latitude/longitude grid cell,
+ * so region queries can use an indexed equality lookup ({@code gridCell IN (...)})
+ * instead of scanning two coordinate ranges.
+ *
+ * Cells are {@link #CELL_DEGREES} on each side, numbered row by row from the
+ * south-west corner: {@code row * COLUMNS + column}. The Java and SQL forms
+ * below must stay identical, the SQL one fills the column during migrations.
+ */
+public final class GridCell {
+    public static final int CELL_DEGREES = 1;
+    public static final int ROWS = 180 / CELL_DEGREES;
+    public static final int COLUMNS = 360 / CELL_DEGREES;
+
+    private GridCell() {
+    }
+
+    public static int of(double latitude, double longitude) {
+        return row(latitude) * COLUMNS + column(longitude);
+    }
+
+    /**
+     * Cells overlapping a latitude/longitude box
+     * @return null if the box covers more than {@code maxCells} cells, in which
+     *         case a plain range scan is cheaper than the lookups
+     */
+    public static int[] covering(double minLatitude, double maxLatitude,
+                                 double minLongitude, double maxLongitude, int maxCells) {
+        int minRow = row(minLatitude);
+        int maxRow = row(maxLatitude);
+        int minColumn = column(minLongitude);
+        int maxColumn = column(maxLongitude);
+        if (minRow > maxRow || minColumn > maxColumn) {
+            return new int[0];
+        }
+        long count = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+        if (count > maxCells) {
+            return null;
+        }
+        int[] cells = new int[(int) count];
+        int i = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                cells[i++] = row * COLUMNS + column;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * SQLite expression computing {@link #of} from two REAL columns
+     */
+    public static String sqlExpression(String latitudeColumn, String longitudeColumn) {
+        return "(MAX(0, MIN(" + (ROWS - 1) + ", CAST((" + latitudeColumn + " + 90) / " + CELL_DEGREES
+            + " AS INTEGER))) * " + COLUMNS
+            + " + MAX(0, MIN(" + (COLUMNS - 1) + ", CAST((" + longitudeColumn + " + 180) / " + CELL_DEGREES
+            + " AS INTEGER))))";
+    }
+
+    // Coordinates are clamped, so +90° and +180° fall into the last cell
+    private static int row(double latitude) {
+        return Math.max(0, Math.min(ROWS - 1, (int) ((latitude + 90) / CELL_DEGREES)));
+    }
+
+    private static int column(double longitude) {
+        return Math.max(0, Math.min(COLUMNS - 1, (int) ((longitude + 180) / CELL_DEGREES)));
+    }
+}
@@ -0,0 +1,216 @@
+package com.aiquake.usgs;
+
+import com.aiquake.models.Earthquake;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Parses the USGS earthquake GeoJSON feed
+ * (https://earthquake.usgs.gov/earthquakes/feed/v1.0/geojson.php) into
+ * {@link Earthquake} objects.
+ *
+ * The document is read token by token: each feature becomes an Earthquake as
+ * soon as it has been read, and the fields the app does not use are skipped
+ * without being built. Parsing with a {@link FeatureHandler} therefore takes
+ * the same memory for the multi-megabyte all_month feed as for all_hour.
+ */
+public final class UsgsGeoJsonParser {
+    public static final String SOURCE_PREFIX = "USGS";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Receives the features of a feed in document order
+     */
+    public interface FeatureHandler {
+        void onEarthquake(Earthquake earthquake);
+    }
+
+    private UsgsGeoJsonParser() {
+    }
+
+    /**
+     * @throws JsonParseException if the document is not a USGS feature collection
+     */
+    public static List<Earthquake> parse(String json) {
+        return parse(new StringReader(json));
+    }
+
+    /**
+     * @throws JsonParseException if the document is not a USGS feature collection,
+     * or {@link JsonIOException} if it cannot be read
+     */
+    public static List<Earthquake> parse(Reader reader) {
+        List<Earthquake> earthquakes = new ArrayList<>();
+        try {
+            parse(reader, earthquakes::add);
+        } catch (JsonParseException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+        return earthquakes;
+    }
+
+    /**
+     * Stream a UTF-8 feed, e.g. an HTTP response body, into the handler. The stream is not closed.
+     * @throws JsonParseException if the document is not a USGS feature collection
+     * @throws IOException if the stream fails
+     */
+    public static void parse(InputStream in, FeatureHandler handler) throws IOException {
+        parse(new InputStreamReader(in, UTF_8), handler);
+    }
+
+    /**
+     * Stream a feed into the handler, one feature at a time. The reader is not closed.
+     * @throws JsonParseException if the document is not a USGS feature collection
+     * @throws IOException if the reader fails
+     */
+    public static void parse(Reader reader, FeatureHandler handler) throws IOException {
+        JsonReader json = new JsonReader(reader);
+        try {
+            if (json.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new JsonParseException("Expected a GeoJSON feature collection");
+            }
+            boolean hasFeatures = false;
+            json.beginObject();
+            while (json.hasNext()) {
+                if (json.nextName().equals("features") && json.peek() == JsonToken.BEGIN_ARRAY) {
+                    hasFeatures = true;
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        handler.onEarthquake(readFeature(json));
+                    }
+                    json.endArray();
+                } else {
+                    json.skipValue(); // metadata, bbox
+                }
+            }
+            json.endObject();
+            if (!hasFeatures) {
+                throw new JsonParseException("Missing features array");
+            }
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            // Syntax errors, and values of the wrong type for the field
+            throw new JsonParseException(e);
+        }
+    }
+
+    private static Earthquake readFeature(JsonReader json) throws IOException {
+        String id = null;
+        double magnitude = 0.0;
+        String place = null;
+        Long time = null;
+        String network = null;
+        double[] coordinates = null;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (name.equals("id")) {
+                id = nextString(json);
+            } else if (name.equals("properties") && json.peek() == JsonToken.BEGIN_OBJECT) {
+                json.beginObject();
+                while (json.hasNext()) {
+                    String property = json.nextName();
+                    if (property.equals("mag")) {
+                        magnitude = nextDouble(json);
+                    } else if (property.equals("place")) {
+                        place = nextString(json);
+                    } else if (property.equals("time") && json.peek() != JsonToken.NULL) {
+                        time = json.nextLong();
+                    } else if (property.equals("net")) {
+                        network = nextString(json);
+                    } else {
+                        json.skipValue();
+                    }
+                }
+                json.endObject();
+            } else if (name.equals("geometry") && json.peek() == JsonToken.BEGIN_OBJECT) {
+                json.beginObject();
+                while (json.hasNext()) {
+                    if (json.nextName().equals("coordinates") && json.peek() == JsonToken.BEGIN_ARRAY) {
+                        coordinates = readCoordinates(json);
+                    } else {
+                        json.skipValue();
+                    }
+                }
+                json.endObject();
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (time == null) {
+            throw new JsonParseException("Feature " + id + " has no time");
+        }
+        if (coordinates == null) {
+            throw new JsonParseException("Feature " + id + " has no coordinates");
+        }
+        return new Earthquake(
+            id,
+            magnitude,
+            coordinates[1], // latitude
+            coordinates[0], // longitude
+            place,
+            new Date(time),
+            coordinates[2], // depth
+            source(network)
+        );
+    }
+
+    // GeoJSON positions are [longitude, latitude] with an optional depth, 0 when missing
+    private static double[] readCoordinates(JsonReader json) throws IOException {
+        double[] coordinates = new double[3];
+        int count = 0;
+        json.beginArray();
+        while (json.hasNext()) {
+            if (count < coordinates.length) {
+                coordinates[count] = json.nextDouble();
+            } else {
+                json.skipValue();
+            }
+            count++;
+        }
+        json.endArray();
+        if (count < 2) {
+            throw new JsonParseException("Expected at least longitude and latitude, got " + count + " coordinates");
+        }
+        return coordinates;
+    }
+
+    static String source(String network) {
+        return network == null ? SOURCE_PREFIX : SOURCE_PREFIX + " (" + network + ")";
+    }
+
+    // Optional USGS properties are present but null, e.g. "mag": null for some events
+    private static String nextString(JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        return json.nextString();
+    }
+
+    private static double nextDouble(JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return 0.0;
+        }
+        return json.nextDouble();
+    }
+}
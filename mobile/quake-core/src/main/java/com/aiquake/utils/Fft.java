@@ -0,0 +1,79 @@
+package com.aiquake.utils;
+
+/**
+ * Fixed-size, in-place radix-2 fast Fourier transform.
+ *
+ * The bit-reversal permutation and the twiddle factors are computed once in
+ * the constructor, so a transform only reads tables and never allocates.
+ * One instance can be reused for any number of transforms of its size, but
+ * not from several threads at once.
+ */
+public class Fft {
+    private final int size;
+    private final int[] bitReversed;
+    private final float[] cosTable;
+    private final float[] sinTable;
+
+    /**
+     * @param size Number of points, must be a power of two
+     */
+    public Fft(int size) {
+        if (size < 2 || (size & (size - 1)) != 0) {
+            throw new IllegalArgumentException("FFT size must be a power of two: " + size);
+        }
+        this.size = size;
+
+        int bits = Integer.numberOfTrailingZeros(size);
+        bitReversed = new int[size];
+        for (int i = 0; i < size; i++) {
+            bitReversed[i] = Integer.reverse(i) >>> (32 - bits);
+        }
+
+        cosTable = new float[size / 2];
+        sinTable = new float[size / 2];
+        for (int i = 0; i < size / 2; i++) {
+            double angle = -2 * Math.PI * i / size;
+            cosTable[i] = (float) Math.cos(angle);
+            sinTable[i] = (float) Math.sin(angle);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Forward transform of the complex signal (re, im), replaced by its spectrum
+     */
+    public void transform(float[] re, float[] im) {
+        for (int i = 0; i < size; i++) {
+            int j = bitReversed[i];
+            if (j > i) {
+                float tmp = re[i];
+                re[i] = re[j];
+                re[j] = tmp;
+                tmp = im[i];
+                im[i] = im[j];
+                im[j] = tmp;
+            }
+        }
+
+        for (int half = 1; half < size; half <<= 1) {
+            int tableStep = size / (half << 1);
+            for (int start = 0; start < size; start += half << 1) {
+                for (int k = 0; k < half; k++) {
+                    float wr = cosTable[k * tableStep];
+                    float wi = sinTable[k * tableStep];
+                    int even = start + k;
+                    int odd = even + half;
+                    float tr = wr * re[odd] - wi * im[odd];
+                    float ti = wr * im[odd] + wi * re[odd];
+                    re[odd] = re[even] - tr;
+                    im[odd] = im[even] - ti;
+                    re[even] += tr;
+                    im[even] += ti;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.aiquake.utils;
+
+/**
+ * Fixed-size sliding window over a stream of float samples.
+ *
+ * Samples are stored in a primitive ring buffer and the window statistics
+ * (sum, sum of squares, maximum and number of samples above a threshold) are
+ * updated as samples enter and leave the window, so {@link #add(float)} is O(1)
+ * (amortised for the maximum) and never allocates.
+ */
+public class RingBufferWindow {
+    private final float[] values;
+    private final float countThreshold;
+
+    // Sequence numbers of candidate maxima, values strictly decreasing from head to tail
+    private final long[] maxQueue;
+    private int maxHead;
+    private int maxSize;
+
+    private long sequence; // Total number of samples added since the last reset
+    private int size;
+    private double sum;
+    private double sumOfSquares;
+    private int aboveThresholdCount;
+
+    /**
+     * @param capacity Number of samples kept in the window
+     * @param countThreshold Samples strictly above this value are counted by {@link #getAboveThresholdCount()}
+     */
+    public RingBufferWindow(int capacity, float countThreshold) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.values = new float[capacity];
+        this.maxQueue = new long[capacity];
+        this.countThreshold = countThreshold;
+    }
+
+    /**
+     * Append a sample, evicting the oldest one once the window is full
+     */
+    public void add(float value) {
+        int capacity = values.length;
+
+        if (size == capacity) {
+            long evicted = sequence - capacity;
+            float old = values[(int) (evicted % capacity)];
+            sum -= old;
+            sumOfSquares -= (double) old * old;
+            if (old > countThreshold) {
+                aboveThresholdCount--;
+            }
+            if (maxSize > 0 && maxQueue[maxHead] == evicted) {
+                maxHead = (maxHead + 1) % capacity;
+                maxSize--;
+            }
+        } else {
+            size++;
+        }
+
+        values[(int) (sequence % capacity)] = value;
+        sum += value;
+        sumOfSquares += (double) value * value;
+        if (value > countThreshold) {
+            aboveThresholdCount++;
+        }
+
+        // Drop every candidate that can no longer be the maximum
+        while (maxSize > 0) {
+            int tail = (maxHead + maxSize - 1) % capacity;
+            if (values[(int) (maxQueue[tail] % capacity)] > value) {
+                break;
+            }
+            maxSize--;
+        }
+        maxQueue[(maxHead + maxSize) % capacity] = sequence;
+        maxSize++;
+
+        sequence++;
+    }
+
+    public boolean isFull() {
+        return size == values.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public float getSum() {
+        return (float) sum;
+    }
+
+    public float getMean() {
+        return size == 0 ? 0f : (float) (sum / size);
+    }
+
+    /**
+     * Population variance of the samples currently in the window
+     */
+    public float getVariance() {
+        if (size == 0) {
+            return 0f;
+        }
+        double mean = sum / size;
+        // Clamp the rounding error of the running sums
+        return (float) Math.max(0.0, sumOfSquares / size - mean * mean);
+    }
+
+    /**
+     * Largest sample currently in the window, or 0 when the window is empty
+     */
+    public float getMax() {
+        return maxSize == 0 ? 0f : values[(int) (maxQueue[maxHead] % values.length)];
+    }
+
+    public int getAboveThresholdCount() {
+        return aboveThresholdCount;
+    }
+
+    /**
+     * Most recently added sample, or 0 when the window is empty
+     */
+    public float getLatest() {
+        return size == 0 ? 0f : values[(int) ((sequence - 1) % values.length)];
+    }
+
+    public void clear() {
+        sequence = 0;
+        size = 0;
+        sum = 0;
+        sumOfSquares = 0;
+        aboveThresholdCount = 0;
+        maxHead = 0;
+        maxSize = 0;
+    }
+}
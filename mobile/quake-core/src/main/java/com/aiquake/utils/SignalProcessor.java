@@ -0,0 +1,142 @@
+package com.aiquake.utils;
+
+import com.aiquake.detection.DetectionFrame;
+import com.aiquake.detection.TriggerDetector;
+import com.aiquake.detection.filter.FilterBank;
+
+public class SignalProcessor implements TriggerDetector {
+    private static final int WINDOW_SIZE = 50; // Number of samples to analyze
+    private static final float EARTHQUAKE_THRESHOLD = 1.5f; // Minimum magnitude to consider as potential earthquake
+    private static final float NOISE_THRESHOLD = 0.1f; // Minimum magnitude to consider as significant movement
+    private static final long RESET_DELAY_MILLIS = 5000; // Quiet time before the earthquake state is cleared
+    
+    private final RingBufferWindow magnitudeHistory;
+    // Only used by processSample, pipeline frames are already filtered
+    private final FilterBank filterBank = new FilterBank();
+    private final DetectionFrame sensorFrame = new DetectionFrame();
+    private float lastMagnitude;
+    private long lastUpdateTime;
+    private boolean isPotentialEarthquake;
+
+    public SignalProcessor() {
+        magnitudeHistory = new RingBufferWindow(WINDOW_SIZE, NOISE_THRESHOLD);
+        lastMagnitude = 0f;
+        lastUpdateTime = 0;
+        isPotentialEarthquake = false;
+    }
+
+    /**
+     * Process one accelerometer sample and determine if it might be an earthquake
+     * @param timestampNanos Sample time in nanoseconds
+     * @return true if the movement pattern suggests an earthquake
+     */
+    public boolean processSample(long timestampNanos, float x, float y, float z) {
+        // Remove gravity and keep the seismic band
+        sensorFrame.reset(timestampNanos, x, y, z);
+        filterBank.apply(sensorFrame);
+
+        float magnitude = calculateMagnitude(sensorFrame.getX(), sensorFrame.getY(), sensorFrame.getZ());
+
+        return processMagnitude(magnitude, timestampNanos / 1_000_000L);
+    }
+
+    /**
+     * Pipeline entry point: uses the magnitude computed by the feature stage,
+     * which is gravity free once the filter stage ran
+     */
+    @Override
+    public boolean update(DetectionFrame frame) {
+        boolean isEarthquake = processMagnitude(frame.getMagnitude(), frame.getTimestampMillis());
+        frame.setTriggerLevel(lastMagnitude / EARTHQUAKE_THRESHOLD);
+        return isEarthquake;
+    }
+
+    private boolean processMagnitude(float magnitude, long timestampMillis) {
+        // Smooth the band-passed magnitude into an envelope
+        magnitude = applyLowPassFilter(magnitude);
+
+        // Update magnitude history
+        updateMagnitudeHistory(magnitude);
+
+        // Check for earthquake patterns
+        return detectEarthquakePattern(timestampMillis);
+    }
+
+    /**
+     * Calculate the magnitude of acceleration from filtered x, y, z components
+     */
+    private float calculateMagnitude(float x, float y, float z) {
+        return (float) Math.sqrt(x * x + y * y + z * z);
+    }
+
+    /**
+     * Apply a simple low-pass filter to reduce noise
+     */
+    private float applyLowPassFilter(float magnitude) {
+        // Simple exponential moving average
+        float alpha = 0.1f; // Smoothing factor
+        lastMagnitude = alpha * magnitude + (1 - alpha) * lastMagnitude;
+        return lastMagnitude;
+    }
+
+    /**
+     * Update the magnitude history window
+     */
+    private void updateMagnitudeHistory(float magnitude) {
+        magnitudeHistory.add(magnitude);
+    }
+
+    /**
+     * Detect earthquake patterns in the magnitude history
+     */
+    private boolean detectEarthquakePattern(long timestampMillis) {
+        if (!magnitudeHistory.isFull()) {
+            return false;
+        }
+
+        // Window statistics are maintained incrementally by the ring buffer
+        float averageMagnitude = magnitudeHistory.getMean();
+        float maxMagnitude = magnitudeHistory.getMax();
+        int significantMovements = magnitudeHistory.getAboveThresholdCount();
+
+        // Check for earthquake characteristics:
+        // 1. Sustained movement above threshold
+        // 2. Significant number of movements in the window
+        // 3. Maximum magnitude above earthquake threshold
+        boolean isEarthquake = averageMagnitude > EARTHQUAKE_THRESHOLD &&
+                             significantMovements > WINDOW_SIZE * 0.3 &&
+                             maxMagnitude > EARTHQUAKE_THRESHOLD * 1.5;
+
+        // Update earthquake state
+        if (isEarthquake && !isPotentialEarthquake) {
+            isPotentialEarthquake = true;
+            lastUpdateTime = timestampMillis;
+        } else if (!isEarthquake && isPotentialEarthquake) {
+            // Reset after 5 seconds of no earthquake activity
+            if (timestampMillis - lastUpdateTime > RESET_DELAY_MILLIS) {
+                isPotentialEarthquake = false;
+            }
+        }
+
+        return isPotentialEarthquake;
+    }
+
+    /**
+     * Get the current magnitude value
+     */
+    public float getCurrentMagnitude() {
+        return lastMagnitude;
+    }
+
+    /**
+     * Reset the processor state
+     */
+    @Override
+    public void reset() {
+        filterBank.reset();
+        magnitudeHistory.clear();
+        lastMagnitude = 0f;
+        isPotentialEarthquake = false;
+        lastUpdateTime = 0;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.aiquake.utils;
+
+import com.aiquake.detection.DetectionFrame;
+import com.aiquake.detection.FeatureVector;
+import com.aiquake.detection.TriggerDetector;
+
+/**
+ * Classic short-term-average / long-term-average trigger.
+ *
+ * Both averages are exponential moving averages of the energy (squared
+ * magnitude) of the filtered, gravity free acceleration, updated
+ * recursively from the previous value, so each sample costs a handful of
+ * multiplications and no window is ever rescanned. The smoothing factors are
+ * derived from the sample timestamps, which keeps the time constants correct
+ * when the sensor rate changes or samples arrive in batches.
+ */
+public class StaLtaDetector implements TriggerDetector {
+    public static final float DEFAULT_STA_SECONDS = 1.0f;
+    public static final float DEFAULT_LTA_SECONDS = 30.0f;
+    public static final float DEFAULT_TRIGGER_ON_RATIO = 4.0f;
+    public static final float DEFAULT_TRIGGER_OFF_RATIO = 1.5f;
+    public static final long DEFAULT_MIN_TRIGGER_MILLIS = 1000; // Footsteps rarely last this long
+
+    // Energy floor for the LTA so a perfectly still phone does not amplify sensor noise
+    private static final float MIN_LTA = 0.0004f; // (0.02 m/s²)²
+
+    private final float staSeconds;
+    private final float ltaSeconds;
+    private final float triggerOnRatio;
+    private final float triggerOffRatio;
+    private final long minTriggerNanos;
+    private final long ltaNanos;
+
+    private float sta;
+    private float lta;
+    private float ratio;
+    private long lastTimestampNanos;
+    private long warmUpNanos; // Signal time seen so far, capped at the LTA length
+    private boolean initialized;
+
+    private boolean ratioAboveOn; // STA/LTA crossed the on ratio and has not dropped below the off ratio
+    private long ratioOnSinceNanos;
+    private boolean triggered;
+
+    public StaLtaDetector() {
+        this(DEFAULT_STA_SECONDS, DEFAULT_LTA_SECONDS, DEFAULT_TRIGGER_ON_RATIO,
+            DEFAULT_TRIGGER_OFF_RATIO, DEFAULT_MIN_TRIGGER_MILLIS);
+    }
+
+    public StaLtaDetector(float staSeconds, float ltaSeconds, float triggerOnRatio,
+                          float triggerOffRatio, long minTriggerMillis) {
+        if (staSeconds <= 0 || ltaSeconds <= staSeconds) {
+            throw new IllegalArgumentException("LTA window must be longer than STA window");
+        }
+        if (triggerOffRatio > triggerOnRatio) {
+            throw new IllegalArgumentException("Trigger off ratio must not exceed trigger on ratio");
+        }
+        this.staSeconds = staSeconds;
+        this.ltaSeconds = ltaSeconds;
+        this.triggerOnRatio = triggerOnRatio;
+        this.triggerOffRatio = triggerOffRatio;
+        this.minTriggerNanos = minTriggerMillis * 1_000_000L;
+        this.ltaNanos = (long) (ltaSeconds * 1e9);
+    }
+
+    @Override
+    public boolean update(DetectionFrame frame) {
+        long timestampNanos = frame.getTimestampNanos();
+
+        if (!initialized) {
+            sta = 0f;
+            lta = MIN_LTA;
+            lastTimestampNanos = timestampNanos;
+            initialized = true;
+            return false;
+        }
+
+        float dt = (timestampNanos - lastTimestampNanos) / 1e9f;
+        lastTimestampNanos = timestampNanos;
+        if (dt <= 0f) {
+            return triggered;
+        }
+        if (warmUpNanos < ltaNanos) {
+            warmUpNanos += (long) (dt * 1e9f);
+        }
+
+        float staAlpha = Math.min(1f, dt / staSeconds);
+        float ltaAlpha = Math.min(1f, dt / ltaSeconds);
+
+        // Characteristic function: energy of the band-passed signal, the filter
+        // stage already removed gravity and sensor offset
+        float energy = frame.getFeature(FeatureVector.MAGNITUDE_SQUARED);
+
+        sta += staAlpha * (energy - sta);
+        // The long-term average is frozen while triggered so a long event does
+        // not raise its own reference level and switch itself off
+        if (!ratioAboveOn) {
+            lta += ltaAlpha * (energy - lta);
+            if (lta < MIN_LTA) {
+                lta = MIN_LTA;
+            }
+        }
+
+        ratio = sta / lta;
+        frame.setTriggerLevel(ratio / triggerOnRatio);
+
+        if (warmUpNanos < ltaNanos) {
+            // Not enough history for a meaningful long-term average yet
+            return false;
+        }
+
+        if (!ratioAboveOn && ratio >= triggerOnRatio) {
+            ratioAboveOn = true;
+            ratioOnSinceNanos = timestampNanos;
+        } else if (ratioAboveOn && ratio < triggerOffRatio) {
+            ratioAboveOn = false;
+            triggered = false;
+        }
+
+        if (ratioAboveOn && !triggered && timestampNanos - ratioOnSinceNanos >= minTriggerNanos) {
+            triggered = true;
+        }
+        return triggered;
+    }
+
+    /**
+     * Current STA/LTA ratio, usable as a pre-trigger energy indicator
+     */
+    public float getRatio() {
+        return ratio;
+    }
+
+    public float getTriggerOnRatio() {
+        return triggerOnRatio;
+    }
+
+    @Override
+    public void reset() {
+        initialized = false;
+        sta = 0f;
+        lta = MIN_LTA;
+        ratio = 0f;
+        lastTimestampNanos = 0;
+        warmUpNanos = 0;
+        ratioAboveOn = false;
+        ratioOnSinceNanos = 0;
+        triggered = false;
+    }
+}
@@ -0,0 +1,116 @@
+package com.aiquake.capture;
+
+import com.aiquake.detection.replay.SensorTrace;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SampleBlockCodecTest {
+    private static final int COUNT = 1000;
+    private static final long NANOS_PER_MICRO = 1000;
+
+    private final long[] timestamps = new long[COUNT];
+    private final float[] x = new float[COUNT];
+    private final float[] y = new float[COUNT];
+    private final float[] z = new float[COUNT];
+
+    public SampleBlockCodecTest() {
+        // 200 Hz with scheduling jitter, a slowly wandering accelerometer at rest
+        Random random = new Random(11);
+        long timestamp = 1_700_000_000_000_000_000L;
+        float ax = 0.1f;
+        float ay = -0.2f;
+        float az = 9.81f;
+        for (int i = 0; i < COUNT; i++) {
+            timestamp += 5_000_000L + random.nextInt(400_000) - 200_000;
+            ax += (float) random.nextGaussian() * 0.01f;
+            ay += (float) random.nextGaussian() * 0.01f;
+            az += (float) random.nextGaussian() * 0.01f;
+            timestamps[i] = timestamp;
+            x[i] = ax;
+            y[i] = ay;
+            z[i] = az;
+        }
+    }
+
+    @Test
+    public void roundTripKeepsSamplesWithinTheResolution() {
+        float resolution = SampleBlockEncoder.DEFAULT_RESOLUTION;
+        byte[] block = new SampleBlockEncoder().encode(timestamps, x, y, z, 0, COUNT);
+
+        SampleBlockDecoder decoder = new SampleBlockDecoder(block);
+        assertEquals(COUNT, decoder.getCount());
+        // Float rounding of values near 10 m/s² on top of the quantisation step
+        float tolerance = resolution / 2 + 1e-5f;
+        for (int i = 0; i < COUNT; i++) {
+            assertTrue(decoder.next());
+            assertTrue(timestamps[i] - decoder.getTimestampNanos() >= 0);
+            assertTrue(timestamps[i] - decoder.getTimestampNanos() < NANOS_PER_MICRO);
+            assertEquals(x[i], decoder.getX(), tolerance);
+            assertEquals(y[i], decoder.getY(), tolerance);
+            assertEquals(z[i], decoder.getZ(), tolerance);
+        }
+        assertFalse(decoder.next());
+    }
+
+    @Test
+    public void blocksAreSmallerThanRawSamples() {
+        byte[] block = new SampleBlockEncoder().encode(timestamps, x, y, z, 0, COUNT);
+        // Raw storage is one long and three floats per sample
+        assertTrue("Block of " + block.length + " bytes", block.length < COUNT * 20 / 2);
+    }
+
+    @Test
+    public void encodesASliceOfTheArrays() {
+        byte[] block = new SampleBlockEncoder().encode(timestamps, x, y, z, 100, 50);
+        assertEquals(50, SampleBlockDecoder.count(block));
+
+        SensorTrace trace = new SensorTrace();
+        SampleBlockDecoder.decodeInto(block, trace);
+        assertEquals(50, trace.size());
+        assertEquals(timestamps[100] / NANOS_PER_MICRO * NANOS_PER_MICRO, trace.getTimestamp(0));
+        assertEquals(x[149], trace.getX(49), SampleBlockEncoder.DEFAULT_RESOLUTION);
+    }
+
+    @Test
+    public void emptyBlockRoundTrips() {
+        byte[] block = new SampleBlockEncoder().encode(timestamps, x, y, z, 0, 0);
+        SampleBlockDecoder decoder = new SampleBlockDecoder(block);
+        assertEquals(0, decoder.getCount());
+        assertFalse(decoder.next());
+    }
+
+    @Test
+    public void truncatedBlockIsRejected() {
+        byte[] block = new SampleBlockEncoder().encode(timestamps, x, y, z, 0, COUNT);
+        for (int length : new int[]{0, 1, 4, block.length / 2, block.length - 1}) {
+            try {
+                SampleBlockDecoder decoder = new SampleBlockDecoder(Arrays.copyOf(block, length));
+                while (decoder.next()) {
+                    // Truncation inside the axis data shows while reading
+                }
+                throw new AssertionError("Accepted a block cut to " + length + " bytes");
+            } catch (IllegalArgumentException expected) {
+                // Expected
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownVersionIsRejected() {
+        byte[] block = new SampleBlockEncoder().encode(timestamps, x, y, z, 0, 10);
+        block[0] = (byte) (SampleBlockEncoder.VERSION + 1);
+        new SampleBlockDecoder(block);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveResolutionIsRejected() {
+        new SampleBlockEncoder(0f);
+    }
+}
@@ -0,0 +1,93 @@
+package com.aiquake.detection;
+
+import com.aiquake.detection.filter.FilterBank;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DetectionPipelineTest {
+    private static final float SINE_HZ = 3f;
+
+    @Test
+    public void samplingRateChangeRefillsTheFeatureWindows() {
+        CountingExtractor extractor = new CountingExtractor(new SpectralFeatureExtractor());
+        DetectionPipeline pipeline = new DetectionPipeline(new FilterBank(), extractor, QUIET,
+            EventClassifier.NONE, DetectionPipeline.DEFAULT_MIN_CONFIDENCE, new Debouncer(0));
+        FrameRecorder recorder = new FrameRecorder();
+        pipeline.addListener(recorder);
+
+        long timestamp = feedSine(pipeline, 0L, 100, 500);
+        assertEquals(0, extractor.resets);
+        assertEquals(SINE_HZ, recorder.dominantFrequency, 100f / SpectralFeatureExtractor.DEFAULT_FFT_SIZE);
+
+        // The sensor drops to 50 Hz, the filter follows within a few dozen samples
+        int switchSample = -1;
+        for (int i = 0; i < 200 && switchSample < 0; i++) {
+            timestamp = feedSine(pipeline, timestamp, 50, 1);
+            if (extractor.resets > 0) {
+                switchSample = i;
+            }
+        }
+        assertEquals(1, extractor.resets);
+        assertEquals("Spectrum of the mixed window is dropped", 0f, recorder.dominantFrequency, 0f);
+
+        feedSine(pipeline, timestamp, 50, 2 * SpectralFeatureExtractor.DEFAULT_FFT_SIZE);
+        assertEquals(1, extractor.resets);
+        assertEquals(SINE_HZ, recorder.dominantFrequency, 50f / SpectralFeatureExtractor.DEFAULT_FFT_SIZE);
+    }
+
+    private static long feedSine(DetectionPipeline pipeline, long timestamp, int rateHz, int samples) {
+        long periodNanos = 1_000_000_000L / rateHz;
+        for (int i = 0; i < samples; i++) {
+            timestamp += periodNanos;
+            float x = (float) Math.sin(2 * Math.PI * SINE_HZ * timestamp / 1e9);
+            pipeline.process(timestamp, x, 0f, 9.81f);
+        }
+        return timestamp;
+    }
+
+    private static final TriggerDetector QUIET = new TriggerDetector() {
+        @Override
+        public boolean update(DetectionFrame frame) {
+            return false;
+        }
+
+        @Override
+        public void reset() {
+        }
+    };
+
+    private static final class CountingExtractor implements FeatureExtractor {
+        final FeatureExtractor delegate;
+        int resets;
+
+        CountingExtractor(FeatureExtractor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void extract(DetectionFrame frame) {
+            delegate.extract(frame);
+        }
+
+        @Override
+        public void reset() {
+            resets++;
+            delegate.reset();
+        }
+    }
+
+    private static final class FrameRecorder implements DetectionPipeline.Listener {
+        float dominantFrequency;
+
+        @Override
+        public void onFrame(DetectionFrame frame) {
+            dominantFrequency = frame.getFeature(FeatureVector.DOMINANT_FREQUENCY);
+        }
+
+        @Override
+        public void onDetection(DetectionFrame frame) {
+        }
+    }
+}
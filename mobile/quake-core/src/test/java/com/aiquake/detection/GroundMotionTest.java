@@ -0,0 +1,47 @@
+package com.aiquake.detection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GroundMotionTest {
+    @Test
+    public void followsWaldIntensityRelation() {
+        // 100 cm/s²: log10 = 2, upper branch 3.66 * 2 - 1.66
+        assertEquals(5.66, GroundMotion.intensity(1.0), 1e-9);
+        // 10 cm/s²: log10 = 1, lower branch 2.20 * 1 + 1.00
+        assertEquals(3.20, GroundMotion.intensity(0.1), 1e-9);
+    }
+
+    @Test
+    public void magnitudeUsesGutenbergRichterEpicentralIntensity() {
+        assertEquals(1 + 2 / 3.0 * 5.66, GroundMotion.estimateMagnitude(1.0), 1e-9);
+    }
+
+    @Test
+    public void clampsToTheIntensityScale() {
+        assertEquals(GroundMotion.MIN_INTENSITY, GroundMotion.intensity(0), 0);
+        assertEquals(GroundMotion.MIN_INTENSITY, GroundMotion.intensity(-1), 0);
+        assertEquals(GroundMotion.MIN_INTENSITY, GroundMotion.intensity(Double.NaN), 0);
+        assertEquals(GroundMotion.MAX_INTENSITY, GroundMotion.intensity(100), 0);
+    }
+
+    @Test
+    public void typicalPhonePeaksGiveSmallNonZeroMagnitudes() {
+        // The band-passed peak of felt shaking is well under 1 m/s²
+        double magnitude = GroundMotion.estimateMagnitude(0.2);
+        assertTrue(magnitude > 3 && magnitude < 4);
+    }
+
+    @Test
+    public void increasesWithAcceleration() {
+        double previous = 0;
+        for (double pga = 0.001; pga < 30; pga *= 1.1) {
+            double magnitude = GroundMotion.estimateMagnitude(pga);
+            // The two Wald branches meet within a few thousandths of an intensity unit
+            assertTrue("at " + pga, magnitude >= previous - 0.005);
+            previous = magnitude;
+        }
+    }
+}
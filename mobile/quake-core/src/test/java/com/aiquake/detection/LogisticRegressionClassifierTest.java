@@ -0,0 +1,39 @@
+package com.aiquake.detection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LogisticRegressionClassifierTest {
+    @Test
+    public void appliesScalingWeightsAndBias() {
+        LogisticRegressionClassifier classifier = new LogisticRegressionClassifier(
+            new boolean[]{false, true},
+            new float[]{1f, -2f},
+            new float[]{2f, 0.5f},
+            new byte[]{4, -8},
+            0.25f,
+            0.5f);
+        // (3 - 1) * 2 * 4 + (log10(100) + 2) * 0.5 * -8 = 16 - 16, then 0 * 0.25 + 0.5
+        assertEquals(sigmoid(0.5), classifier.classify(new float[]{3f, 100f}), 1e-6);
+    }
+
+    @Test
+    public void logScaledFeaturesHaveAFloor() {
+        LogisticRegressionClassifier classifier = new LogisticRegressionClassifier(
+            new boolean[]{true}, new float[]{0f}, new float[]{1f}, new byte[]{1}, 1f, 0f);
+        // log10(1e-6) = -6 for zero and negative values alike
+        assertEquals(sigmoid(-6), classifier.classify(new float[]{0f}), 1e-6);
+        assertEquals(sigmoid(-6), classifier.classify(new float[]{-1f}), 1e-6);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsArraysOfDifferentLengths() {
+        new LogisticRegressionClassifier(
+            new boolean[2], new float[2], new float[1], new byte[2], 1f, 0f);
+    }
+
+    private static double sigmoid(double logit) {
+        return 1 / (1 + Math.exp(-logit));
+    }
+}
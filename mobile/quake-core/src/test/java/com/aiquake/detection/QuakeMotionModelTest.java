@@ -0,0 +1,62 @@
+package com.aiquake.detection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QuakeMotionModelTest {
+    private static final float MIN_CONFIDENCE = 0.5f; // DetectionPipeline default
+
+    private final EventClassifier classifier = QuakeMotionModel.create();
+
+    @Test
+    public void quakeLikeMotionIsAccepted() {
+        // Sustained 2.5 Hz, mostly horizontal shaking with smooth onsets
+        float confidence = classifier.classify(features(
+            0.01f, 0.01f, 0.003f, 0.75f, 0.09f, 1f, 2.5f, 0.7f, 0.05f));
+        assertEquals(0.99926f, confidence, 1e-5f);
+        assertTrue(confidence > MIN_CONFIDENCE);
+    }
+
+    @Test
+    public void footstepLikeMotionIsRejected() {
+        // Vertical impacts with sharp jerks and most energy around 12 Hz
+        float confidence = classifier.classify(features(
+            0.2f, 0.02f, 0.2f, 0.1f, 1f, 400f, 12f, 0.15f, 0.5f));
+        assertEquals(8.285e-6f, confidence, 1e-8f);
+        assertTrue(confidence < MIN_CONFIDENCE);
+    }
+
+    @Test
+    public void averageMotionScoresTheBias() {
+        float[] features = new float[FeatureVector.SIZE];
+        for (int i = 0; i < FeatureVector.SIZE; i++) {
+            features[i] = QuakeMotionModel.LOG_SCALED[i]
+                ? (float) Math.pow(10, QuakeMotionModel.MEAN[i])
+                : QuakeMotionModel.MEAN[i];
+        }
+        assertEquals(1 / (1 + Math.exp(-QuakeMotionModel.BIAS)), classifier.classify(features), 1e-5);
+    }
+
+    @Test
+    public void stillPhoneIsRejected() {
+        assertTrue(classifier.classify(new float[FeatureVector.SIZE]) < MIN_CONFIDENCE);
+    }
+
+    private static float[] features(float magnitudeSquared, float horizontalEnergy, float verticalEnergy,
+                                     float horizontalRatio, float pgaSquared, float jerkSquared,
+                                     float dominantFrequency, float groundBandRatio, float highBandRatio) {
+        float[] features = new float[FeatureVector.SIZE];
+        features[FeatureVector.MAGNITUDE_SQUARED] = magnitudeSquared;
+        features[FeatureVector.HORIZONTAL_ENERGY] = horizontalEnergy;
+        features[FeatureVector.VERTICAL_ENERGY] = verticalEnergy;
+        features[FeatureVector.HORIZONTAL_RATIO] = horizontalRatio;
+        features[FeatureVector.PGA_SQUARED] = pgaSquared;
+        features[FeatureVector.JERK_SQUARED] = jerkSquared;
+        features[FeatureVector.DOMINANT_FREQUENCY] = dominantFrequency;
+        features[FeatureVector.GROUND_BAND_RATIO] = groundBandRatio;
+        features[FeatureVector.HIGH_BAND_RATIO] = highBandRatio;
+        return features;
+    }
+}
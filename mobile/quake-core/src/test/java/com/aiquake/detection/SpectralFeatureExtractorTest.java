@@ -0,0 +1,50 @@
+package com.aiquake.detection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpectralFeatureExtractorTest {
+    private static final int RATE_HZ = 100;
+    private static final float BIN_HZ = (float) RATE_HZ / SpectralFeatureExtractor.DEFAULT_FFT_SIZE;
+
+    @Test
+    public void groundMotionFrequencyIsDominant() {
+        DetectionFrame frame = feedSine(3.0);
+        assertEquals(3.0, frame.getFeature(FeatureVector.DOMINANT_FREQUENCY), BIN_HZ);
+        assertTrue(frame.getFeature(FeatureVector.GROUND_BAND_RATIO) > 0.8f);
+        assertTrue(frame.getFeature(FeatureVector.HIGH_BAND_RATIO) < 0.05f);
+    }
+
+    @Test
+    public void handlingFrequencyFallsInTheHighBand() {
+        DetectionFrame frame = feedSine(20.0);
+        assertEquals(20.0, frame.getFeature(FeatureVector.DOMINANT_FREQUENCY), BIN_HZ);
+        assertTrue(frame.getFeature(FeatureVector.HIGH_BAND_RATIO) > 0.8f);
+        assertTrue(frame.getFeature(FeatureVector.GROUND_BAND_RATIO) < 0.05f);
+    }
+
+    @Test
+    public void noSpectrumBeforeTheWindowIsFull() {
+        SpectralFeatureExtractor extractor = new SpectralFeatureExtractor();
+        DetectionFrame frame = new DetectionFrame();
+        for (int i = 0; i < SpectralFeatureExtractor.DEFAULT_FFT_SIZE - 1; i++) {
+            frame.reset(i * 10_000_000L, (float) Math.sin(i), 0f, 0f);
+            extractor.extract(frame);
+        }
+        assertEquals(0f, frame.getFeature(FeatureVector.DOMINANT_FREQUENCY), 0f);
+    }
+
+    // Sine of unit amplitude on the y axis, sampled at RATE_HZ for two FFT windows
+    private static DetectionFrame feedSine(double frequencyHz) {
+        SpectralFeatureExtractor extractor = new SpectralFeatureExtractor();
+        DetectionFrame frame = new DetectionFrame();
+        long periodNanos = 1_000_000_000L / RATE_HZ;
+        for (int i = 0; i < 2 * SpectralFeatureExtractor.DEFAULT_FFT_SIZE; i++) {
+            frame.reset(i * periodNanos, 0f, (float) Math.sin(2 * Math.PI * frequencyHz * i / RATE_HZ), 0f);
+            extractor.extract(frame);
+        }
+        return frame;
+    }
+}
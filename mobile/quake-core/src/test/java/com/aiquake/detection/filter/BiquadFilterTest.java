@@ -0,0 +1,83 @@
+package com.aiquake.detection.filter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BiquadFilterTest {
+    private static final double RATE_HZ = 100;
+
+    @Test
+    public void lowPassStepSettlesAtTheInput() {
+        BiquadFilter filter = new BiquadFilter(1, BiquadCoefficients.lowPass(5, RATE_HZ));
+        float output = 0f;
+        for (int i = 0; i < 500; i++) {
+            output = filter.process(0, 1f);
+        }
+        assertEquals(1f, output, 1e-4);
+    }
+
+    @Test
+    public void highPassBlocksDc() {
+        BiquadFilter filter = new BiquadFilter(1, BiquadCoefficients.highPass(1, RATE_HZ));
+        float first = filter.process(0, 9.81f);
+        float output = first;
+        for (int i = 0; i < 2000; i++) {
+            output = filter.process(0, 9.81f);
+        }
+        assertTrue("An unprimed step goes through at first", first > 9f);
+        assertEquals(0f, output, 1e-3);
+    }
+
+    @Test
+    public void primedHighPassHasNoStartupTransient() {
+        BiquadFilter filter = new BiquadFilter(1, BiquadCoefficients.highPass(0.2, RATE_HZ));
+        filter.prime(0, 9.81f);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0f, filter.process(0, 9.81f), 1e-3);
+        }
+    }
+
+    @Test
+    public void butterworthGainIsHalfPowerAtTheCutoff() {
+        assertEquals(Math.sqrt(0.5), amplitude(BiquadCoefficients.lowPass(10, RATE_HZ), 10), 0.01);
+        assertEquals(Math.sqrt(0.5), amplitude(BiquadCoefficients.highPass(1, RATE_HZ), 1), 0.01);
+        assertEquals(1, amplitude(BiquadCoefficients.lowPass(10, RATE_HZ), 1), 0.01);
+        assertTrue(amplitude(BiquadCoefficients.lowPass(5, RATE_HZ), 40) < 0.05);
+    }
+
+    @Test
+    public void blockProcessingMatchesSampleProcessing() {
+        BiquadCoefficients coefficients = BiquadCoefficients.lowPass(10, RATE_HZ);
+        BiquadFilter perSample = new BiquadFilter(2, coefficients);
+        BiquadFilter block = new BiquadFilter(2, coefficients);
+        float[] samples = new float[64];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (float) Math.sin(i * 0.7) + (i % 5);
+        }
+        float[] expected = new float[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            expected[i] = perSample.process(1, samples[i]);
+        }
+        block.process(1, samples, 0, 32);
+        block.process(1, samples, 32, 32);
+        for (int i = 0; i < samples.length; i++) {
+            assertEquals(expected[i], samples[i], 0f);
+        }
+    }
+
+    // Steady state output amplitude of a unit sine
+    private static double amplitude(BiquadCoefficients coefficients, double frequencyHz) {
+        BiquadFilter filter = new BiquadFilter(1, coefficients);
+        double peak = 0;
+        int samples = (int) (RATE_HZ * 20);
+        for (int i = 0; i < samples; i++) {
+            float output = filter.process(0, (float) Math.sin(2 * Math.PI * frequencyHz * i / RATE_HZ));
+            if (i > samples / 2) {
+                peak = Math.max(peak, Math.abs(output));
+            }
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,75 @@
+package com.aiquake.detection.filter;
+
+import com.aiquake.detection.DetectionFrame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FilterBankTest {
+    private static final float GRAVITY = 9.81f;
+
+    @Test
+    public void removesGravityFromTheFirstSample() {
+        FilterBank filterBank = new FilterBank();
+        DetectionFrame frame = new DetectionFrame();
+        for (int i = 0; i < 500; i++) {
+            frame.reset(i * 10_000_000L, 0f, 0f, GRAVITY);
+            filterBank.apply(frame);
+            assertEquals(0f, frame.getZ(), 1e-3);
+            assertEquals(GRAVITY, frame.getGravityZ(), 1e-3);
+        }
+    }
+
+    @Test
+    public void passesGroundMotionAndRejectsSlowTilt() {
+        assertTrue(peakOutput(100, 3) > 0.8);
+        assertTrue(peakOutput(100, 0.05) < 0.05);
+    }
+
+    @Test
+    public void followsTheSamplingRate() {
+        FilterBank filterBank = new FilterBank();
+        assertEquals(100, filterBank.getSamplingRateHz());
+        DetectionFrame frame = new DetectionFrame();
+        int switches = 0;
+        for (int i = 0; i < 500; i++) {
+            frame.reset(i * 20_000_000L, 0f, 0f, GRAVITY);
+            if (filterBank.apply(frame)) {
+                switches++;
+            }
+        }
+        assertEquals(50, filterBank.getSamplingRateHz());
+        assertEquals("Reports the coefficient swap once", 1, switches);
+
+        filterBank.reset();
+        assertEquals(100, filterBank.getSamplingRateHz());
+    }
+
+    @Test
+    public void nearestRateUsesGeometricMidpoints() {
+        assertEquals(0, FilterBank.nearestRateIndex(1));
+        assertEquals(1, FilterBank.nearestRateIndex(14));
+        assertEquals(2, FilterBank.nearestRateIndex(15));
+        assertEquals(FilterBank.SAMPLING_RATES_HZ.length - 1, FilterBank.nearestRateIndex(400));
+    }
+
+    // Largest filtered x value for a unit sine on x, once the filters have settled
+    private static double peakOutput(int rateHz, double frequencyHz) {
+        FilterBank filterBank = new FilterBank();
+        DetectionFrame frame = new DetectionFrame();
+        long periodNanos = 1_000_000_000L / rateHz;
+        int samples = rateHz * 120;
+        double peak = 0;
+        for (int i = 0; i < samples; i++) {
+            float x = (float) Math.sin(2 * Math.PI * frequencyHz * i / rateHz);
+            frame.reset(i * periodNanos, x, 0f, GRAVITY);
+            filterBank.apply(frame);
+            if (i > samples / 2) {
+                peak = Math.max(peak, Math.abs(frame.getX()));
+            }
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,99 @@
+package com.aiquake.detection.replay;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SensorTraceTest {
+    @Test
+    public void binaryRoundTripKeepsSamplesAndLabels() throws IOException {
+        SensorTrace trace = new SensorTrace(2);
+        for (int i = 0; i < 10; i++) {
+            trace.add(i * 10_000_000L, i * 0.5f, -i, 9.81f, i >= 5);
+        }
+        trace.setLabelled(true);
+
+        SensorTrace read = SensorTrace.readBinary(new ByteArrayInputStream(toBinary(trace)));
+        assertEquals(10, read.size());
+        assertTrue(read.isLabelled());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i * 10_000_000L, read.getTimestamp(i));
+            assertEquals(i * 0.5f, read.getX(i), 0f);
+            assertEquals(-i, read.getY(i), 0f);
+            assertEquals(9.81f, read.getZ(i), 0f);
+            assertEquals(i >= 5, read.isEarthquake(i));
+        }
+    }
+
+    @Test
+    public void emptyTraceRoundTrips() throws IOException {
+        SensorTrace read = SensorTrace.readBinary(new ByteArrayInputStream(toBinary(new SensorTrace())));
+        assertEquals(0, read.size());
+        assertFalse(read.isLabelled());
+    }
+
+    @Test
+    public void rejectsCorruptHeaders() throws IOException {
+        assertRejected(header(0x12345678, 0, false));
+        assertRejected(header(SensorTrace.BINARY_MAGIC, -1, false));
+        // A count far beyond the data must fail before allocating for it
+        assertRejected(header(SensorTrace.BINARY_MAGIC, Integer.MAX_VALUE, true));
+    }
+
+    @Test
+    public void rejectsTruncatedSamples() throws IOException {
+        SensorTrace trace = new SensorTrace();
+        trace.add(1L, 1f, 2f, 3f);
+        trace.add(2L, 1f, 2f, 3f);
+        byte[] binary = toBinary(trace);
+        assertRejected(Arrays.copyOf(binary, binary.length - 1));
+        assertRejected(Arrays.copyOf(binary, 5));
+    }
+
+    @Test
+    public void csvSkipsHeaderAndComments() throws IOException {
+        SensorTrace trace = SensorTrace.readCsv(new StringReader(
+            "timestamp,x,y,z,label\n# recorded on a table\n\n100,0.1,0.2,9.8,0\n200,0.3,0.4,9.7,1\n"));
+        assertEquals(2, trace.size());
+        assertTrue(trace.isLabelled());
+        assertEquals(200L, trace.getTimestamp(1));
+        assertEquals(0.3f, trace.getX(1), 0f);
+        assertFalse(trace.isEarthquake(0));
+        assertTrue(trace.isEarthquake(1));
+    }
+
+    private static byte[] toBinary(SensorTrace trace) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        trace.writeBinary(bytes);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] header(int magic, int count, boolean labelled) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(magic);
+        data.writeInt(count);
+        data.writeBoolean(labelled);
+        data.writeLong(0L); // A single partial sample
+        return bytes.toByteArray();
+    }
+
+    private static void assertRejected(byte[] binary) {
+        try {
+            SensorTrace.readBinary(new ByteArrayInputStream(binary));
+            fail("Accepted a corrupt trace of " + binary.length + " bytes");
+        } catch (IOException expected) {
+            // Expected
+        }
+    }
+}
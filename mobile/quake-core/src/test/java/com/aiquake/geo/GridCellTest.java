@@ -0,0 +1,58 @@
+package com.aiquake.geo;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GridCellTest {
+    @Test
+    public void numbersCellsRowByRowFromTheSouthWest() {
+        assertEquals(0, GridCell.of(-90, -180));
+        assertEquals(1, GridCell.of(-89.5, -178.5));
+        assertEquals(GridCell.COLUMNS, GridCell.of(-88.5, -179.5));
+        assertEquals(90 * GridCell.COLUMNS + 180, GridCell.of(0, 0));
+        assertEquals(GridCell.ROWS * GridCell.COLUMNS - 1, GridCell.of(90, 180));
+    }
+
+    @Test
+    public void clampsCoordinatesOutsideTheGlobe() {
+        assertEquals(GridCell.of(90, 180), GridCell.of(95, 200));
+        assertEquals(GridCell.of(-90, -180), GridCell.of(-95, -200));
+    }
+
+    @Test
+    public void coveringContainsTheCellOfEveryPointInTheBox() {
+        double minLatitude = 34.2;
+        double maxLatitude = 37.9;
+        double minLongitude = 138.5;
+        double maxLongitude = 141.1;
+        int[] cells = GridCell.covering(minLatitude, maxLatitude, minLongitude, maxLongitude, 100);
+        assertEquals(4 * 4, cells.length);
+
+        int[] sorted = cells.clone();
+        Arrays.sort(sorted);
+        Random random = new Random(5);
+        for (int i = 0; i < 1000; i++) {
+            double latitude = minLatitude + random.nextDouble() * (maxLatitude - minLatitude);
+            double longitude = minLongitude + random.nextDouble() * (maxLongitude - minLongitude);
+            assertTrue(Arrays.binarySearch(sorted, GridCell.of(latitude, longitude)) >= 0);
+        }
+    }
+
+    @Test
+    public void coveringGivesUpOnLargeBoxes() {
+        assertNull(GridCell.covering(-10, 10, -10, 10, 100));
+        assertEquals(21 * 21, GridCell.covering(-10, 10, -10, 10, 21 * 21).length);
+    }
+
+    @Test
+    public void invertedBoxCoversNothing() {
+        assertEquals(0, GridCell.covering(10, -10, 0, 1, 100).length);
+        assertEquals(0, GridCell.covering(0, 1, 10, -10, 100).length);
+    }
+}
@@ -0,0 +1,99 @@
+package com.aiquake.usgs;
+
+import com.aiquake.models.Earthquake;
+import com.google.gson.JsonParseException;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class UsgsGeoJsonParserTest {
+    private static final String FEED = "{\"type\":\"FeatureCollection\","
+        + "\"metadata\":{\"generated\":1700000000000,\"count\":2,\"title\":\"USGS All Earthquakes\"},"
+        + "\"features\":["
+        + "{\"type\":\"Feature\",\"properties\":{\"mag\":4.7,\"place\":\"10 km SSW of Tōkyō, Japan\","
+        + "\"time\":1700000000123,\"tsunami\":0,\"net\":\"us\",\"types\":\",origin,\"},"
+        + "\"geometry\":{\"type\":\"Point\",\"coordinates\":[139.6917,35.6895,10.2]},\"id\":\"us7000abcd\"},"
+        + "{\"type\":\"Feature\",\"id\":\"ak0001\",\"properties\":{\"mag\":null,\"place\":null,"
+        + "\"time\":1700000001000,\"net\":null},\"geometry\":{\"type\":\"Point\",\"coordinates\":[-150.1,61.2]}}"
+        + "],\"bbox\":[-150.1,35.6895,10.2,139.6917,61.2,10.2]}";
+
+    @Test
+    public void readsTheFieldsTheAppUses() {
+        List<Earthquake> earthquakes = UsgsGeoJsonParser.parse(FEED);
+        assertEquals(2, earthquakes.size());
+
+        Earthquake first = earthquakes.get(0);
+        assertEquals("us7000abcd", first.getId());
+        assertEquals(4.7, first.getMagnitude(), 0);
+        assertEquals(35.6895, first.getLatitude(), 0);
+        assertEquals(139.6917, first.getLongitude(), 0);
+        assertEquals(10.2, first.getDepth(), 0);
+        assertEquals("10 km SSW of Tōkyō, Japan", first.getLocation());
+        assertEquals(1700000000123L, first.getTimestamp().getTime());
+        assertEquals("USGS (us)", first.getSource());
+    }
+
+    @Test
+    public void nullAndMissingOptionalFieldsGetDefaults() {
+        Earthquake second = UsgsGeoJsonParser.parse(FEED).get(1);
+        assertEquals("ak0001", second.getId());
+        assertEquals(0.0, second.getMagnitude(), 0);
+        assertNull(second.getLocation());
+        assertEquals(0.0, second.getDepth(), 0);
+        assertEquals(UsgsGeoJsonParser.SOURCE_PREFIX, second.getSource());
+    }
+
+    @Test
+    public void streamsUtf8FeaturesInDocumentOrder() throws IOException {
+        final List<String> ids = new ArrayList<>();
+        final List<String> places = new ArrayList<>();
+        UsgsGeoJsonParser.parse(new ByteArrayInputStream(FEED.getBytes("UTF-8")),
+            new UsgsGeoJsonParser.FeatureHandler() {
+                @Override
+                public void onEarthquake(Earthquake earthquake) {
+                    ids.add(earthquake.getId());
+                    places.add(earthquake.getLocation());
+                }
+            });
+        assertEquals(2, ids.size());
+        assertEquals("us7000abcd", ids.get(0));
+        assertEquals("ak0001", ids.get(1));
+        assertEquals("10 km SSW of Tōkyō, Japan", places.get(0));
+    }
+
+    @Test
+    public void emptyFeedHasNoEarthquakes() {
+        assertTrue(UsgsGeoJsonParser.parse("{\"type\":\"FeatureCollection\",\"features\":[]}").isEmpty());
+    }
+
+    @Test
+    public void rejectsDocumentsThatAreNotFeatureCollections() {
+        assertRejected("[]");
+        assertRejected("{\"type\":\"FeatureCollection\"}");
+        assertRejected("{\"features\":{}}");
+        assertRejected("{\"features\":[");
+        assertRejected("{\"features\":[{\"properties\":{\"time\":1},\"geometry\":{\"coordinates\":[1]}}]}");
+        assertRejected("{\"features\":[{\"properties\":{},\"geometry\":{\"coordinates\":[1,2]}}]}");
+        assertRejected("{\"features\":[{\"properties\":{\"time\":1}}]}");
+        assertRejected("{\"features\":[{\"properties\":{\"time\":\"soon\"},\"geometry\":{\"coordinates\":[1,2]}}]}");
+        assertRejected("{\"features\":[{\"properties\":{\"time\":1,\"mag\":{}},\"geometry\":{\"coordinates\":[1,2]}}]}");
+    }
+
+    private static void assertRejected(String json) {
+        try {
+            UsgsGeoJsonParser.parse(json);
+            fail("Accepted " + json);
+        } catch (JsonParseException expected) {
+            // Expected
+        }
+    }
+}
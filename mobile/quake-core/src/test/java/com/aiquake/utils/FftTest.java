@@ -0,0 +1,59 @@
+package com.aiquake.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class FftTest {
+    @Test
+    public void matchesANaiveDft() {
+        Random random = new Random(3);
+        for (int size : new int[]{2, 8, 64, 128}) {
+            float[] re = new float[size];
+            float[] im = new float[size];
+            for (int i = 0; i < size; i++) {
+                re[i] = random.nextFloat() * 2 - 1;
+                im[i] = random.nextFloat() * 2 - 1;
+            }
+            double[] expectedRe = new double[size];
+            double[] expectedIm = new double[size];
+            for (int k = 0; k < size; k++) {
+                for (int n = 0; n < size; n++) {
+                    double angle = -2 * Math.PI * k * n / size;
+                    expectedRe[k] += re[n] * Math.cos(angle) - im[n] * Math.sin(angle);
+                    expectedIm[k] += re[n] * Math.sin(angle) + im[n] * Math.cos(angle);
+                }
+            }
+
+            new Fft(size).transform(re, im);
+
+            // Single precision rounding grows with log2(size) butterfly stages
+            double tolerance = 1e-5 * size;
+            for (int k = 0; k < size; k++) {
+                assertEquals("re[" + k + "] of " + size, expectedRe[k], re[k], tolerance);
+                assertEquals("im[" + k + "] of " + size, expectedIm[k], im[k], tolerance);
+            }
+        }
+    }
+
+    @Test
+    public void sineLandsInItsBin() {
+        int size = 64;
+        float[] re = new float[size];
+        float[] im = new float[size];
+        for (int i = 0; i < size; i++) {
+            re[i] = (float) Math.cos(2 * Math.PI * 5 * i / size);
+        }
+        new Fft(size).transform(re, im);
+        assertEquals(size / 2f, re[5], 1e-4);
+        assertEquals(size / 2f, re[size - 5], 1e-4);
+        assertEquals(0f, re[6], 1e-4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSizesThatAreNotAPowerOfTwo() {
+        new Fft(96);
+    }
+}
@@ -0,0 +1,90 @@
+package com.aiquake.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RingBufferWindowTest {
+    private static final int CAPACITY = 16;
+    private static final float THRESHOLD = 0.5f;
+
+    @Test
+    public void statisticsMatchARecomputedWindow() {
+        RingBufferWindow window = new RingBufferWindow(CAPACITY, THRESHOLD);
+        float[] samples = new float[1000];
+        Random random = new Random(42);
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = random.nextFloat() * 2 - 0.5f;
+            window.add(samples[i]);
+
+            int start = Math.max(0, i - CAPACITY + 1);
+            int size = i - start + 1;
+            double sum = 0;
+            float max = Float.NEGATIVE_INFINITY;
+            int above = 0;
+            for (int j = start; j <= i; j++) {
+                sum += samples[j];
+                max = Math.max(max, samples[j]);
+                if (samples[j] > THRESHOLD) {
+                    above++;
+                }
+            }
+            double mean = sum / size;
+            double squares = 0;
+            for (int j = start; j <= i; j++) {
+                squares += (samples[j] - mean) * (samples[j] - mean);
+            }
+
+            assertEquals(size, window.size());
+            assertEquals(size == CAPACITY, window.isFull());
+            assertEquals(mean, window.getMean(), 1e-5);
+            assertEquals(squares / size, window.getVariance(), 1e-5);
+            assertEquals(max, window.getMax(), 0f);
+            assertEquals(above, window.getAboveThresholdCount());
+            assertEquals(samples[i], window.getLatest(), 0f);
+        }
+    }
+
+    @Test
+    public void maximumFollowsEvictionOfDecreasingSamples() {
+        RingBufferWindow window = new RingBufferWindow(3, THRESHOLD);
+        window.add(5f);
+        window.add(4f);
+        window.add(3f);
+        assertEquals(5f, window.getMax(), 0f);
+        window.add(1f);
+        assertEquals(4f, window.getMax(), 0f);
+        window.add(1f);
+        assertEquals(3f, window.getMax(), 0f);
+        window.add(1f);
+        assertEquals(1f, window.getMax(), 0f);
+    }
+
+    @Test
+    public void clearEmptiesTheWindow() {
+        RingBufferWindow window = new RingBufferWindow(CAPACITY, THRESHOLD);
+        for (int i = 0; i < 40; i++) {
+            window.add(i);
+        }
+        window.clear();
+        assertEquals(0, window.size());
+        assertFalse(window.isFull());
+        assertEquals(0f, window.getMean(), 0f);
+        assertEquals(0f, window.getMax(), 0f);
+        assertEquals(0, window.getAboveThresholdCount());
+
+        window.add(-2f);
+        assertEquals(-2f, window.getMax(), 0f);
+        assertEquals(-2f, window.getMean(), 0f);
+        assertTrue(window.getVariance() == 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyCapacity() {
+        new RingBufferWindow(0, THRESHOLD);
+    }
+}
@@ -0,0 +1,79 @@
+package com.aiquake.utils;
+
+import com.aiquake.detection.DetectionFrame;
+import com.aiquake.detection.FeatureVector;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StaLtaDetectorTest {
+    private static final int RATE_HZ = 100;
+    private static final long PERIOD_NANOS = 1_000_000_000L / RATE_HZ;
+    private static final float NOISE_AMPLITUDE = 0.02f; // m/s²
+    private static final float BURST_AMPLITUDE = 0.5f; // m/s²
+
+    private final DetectionFrame frame = new DetectionFrame();
+    private final Random random = new Random(7);
+    private StaLtaDetector detector;
+    private long timestampNanos;
+
+    @Before
+    public void setUp() {
+        detector = new StaLtaDetector();
+        timestampNanos = 0;
+    }
+
+    @Test
+    public void triggersOnASustainedBurstAndReleasesAfterIt() {
+        assertFalse("Quiet signal must not trigger", feed(40, NOISE_AMPLITUDE));
+
+        // The trigger needs the ratio above the on level for the minimum trigger time
+        assertFalse(feed(StaLtaDetector.DEFAULT_MIN_TRIGGER_MILLIS / 2000f, BURST_AMPLITUDE));
+        assertTrue("Burst must trigger", feed(4, BURST_AMPLITUDE));
+        assertTrue(detector.getRatio() >= detector.getTriggerOnRatio());
+
+        feed(20, NOISE_AMPLITUDE);
+        assertFalse("Trigger must release once the burst is over", update(NOISE_AMPLITUDE));
+    }
+
+    @Test
+    public void ignoresBurstsBeforeTheLongTermAverageIsWarm() {
+        feed(5, NOISE_AMPLITUDE);
+        assertFalse(feed(5, BURST_AMPLITUDE));
+    }
+
+    @Test
+    public void resetStartsAFreshWarmUp() {
+        feed(40, NOISE_AMPLITUDE);
+        assertTrue(feed(3, BURST_AMPLITUDE));
+        detector.reset();
+        assertFalse(feed(5, BURST_AMPLITUDE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAShortTermWindowLongerThanTheLongTermOne() {
+        new StaLtaDetector(10f, 5f, 4f, 1.5f, 1000);
+    }
+
+    // Feed noise of the given amplitude for a while, true if any sample was triggered
+    private boolean feed(float seconds, float amplitude) {
+        boolean triggered = false;
+        for (int i = 0; i < seconds * RATE_HZ; i++) {
+            triggered |= update(amplitude);
+        }
+        return triggered;
+    }
+
+    private boolean update(float amplitude) {
+        float value = (float) random.nextGaussian() * amplitude;
+        frame.reset(timestampNanos, 0f, 0f, 0f);
+        frame.setFeature(FeatureVector.MAGNITUDE_SQUARED, value * value);
+        timestampNanos += PERIOD_NANOS;
+        return detector.update(frame);
+    }
+}